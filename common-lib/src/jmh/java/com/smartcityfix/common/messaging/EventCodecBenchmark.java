@@ -0,0 +1,68 @@
+package com.smartcityfix.common.messaging;
+
+import com.smartcityfix.common.event.ComplaintCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of the event converter for each {@link EventCodec}, using
+ * the converter services are configured with. Run with {@code -prof gc} to compare the
+ * allocation per operation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    private EventCodec codec;
+
+    private MessageConverter converter;
+    private ComplaintCreatedEvent event;
+    private Message encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MessagingProperties properties = new MessagingProperties();
+        properties.setCodec(codec);
+        converter = new MessagingAutoConfiguration().eventMessageConverter(properties);
+
+        event = new ComplaintCreatedEvent(UUID.randomUUID(), "ROAD_DAMAGE",
+                new ComplaintCreatedEvent.LocationDto(52.520008, 13.404954, "Alexanderplatz 1, 10178 Berlin"),
+                UUID.randomUUID());
+        encoded = encode();
+        if (!event.equals(decode())) {
+            throw new IllegalStateException(codec + " does not round-trip " + event);
+        }
+        System.out.printf("%n%s payload: %d bytes%n", codec, encoded.getBody().length);
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(encoded);
+    }
+}
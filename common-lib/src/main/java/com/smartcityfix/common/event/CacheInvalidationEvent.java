@@ -0,0 +1,25 @@
+package com.smartcityfix.common.event;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Tells the gateway to drop cached responses whose request path matches any of the given
+ * Ant-style patterns, for example {@code /api/departments/**}.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class CacheInvalidationEvent extends BaseEvent {
+    private List<String> paths;
+
+    public CacheInvalidationEvent(List<String> paths) {
+        super("CACHE_INVALIDATED");
+        this.paths = paths;
+    }
+}
@@ -15,11 +15,13 @@ public class ComplaintAssignedEvent extends BaseEvent {
     private UUID complaintId;
     private UUID departmentId;
     private String departmentName;
+    private UUID reportedBy;
 
-    public ComplaintAssignedEvent(UUID complaintId, UUID departmentId, String departmentName) {
+    public ComplaintAssignedEvent(UUID complaintId, UUID departmentId, String departmentName, UUID reportedBy) {
         super("COMPLAINT_ASSIGNED");
         this.complaintId = complaintId;
         this.departmentId = departmentId;
         this.departmentName = departmentName;
+        this.reportedBy = reportedBy;
     }
 }
\ No newline at end of file
@@ -15,11 +15,13 @@ public class ComplaintResolvedEvent extends BaseEvent {
     private UUID complaintId;
     private UUID departmentId;
     private String status;
+    private UUID reportedBy;
 
-    public ComplaintResolvedEvent(UUID complaintId, UUID departmentId, String status) {
+    public ComplaintResolvedEvent(UUID complaintId, UUID departmentId, String status, UUID reportedBy) {
         super("COMPLAINT_RESOLVED");
         this.complaintId = complaintId;
         this.departmentId = departmentId;
         this.status = status;
+        this.reportedBy = reportedBy;
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.smartcityfix.common.event;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.UUID;
+
+/**
+ * A user's profile or role changed, so tokens and principals cached with the old details
+ * must no longer be trusted.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class UserChangedEvent extends BaseEvent {
+    private UUID userId;
+
+    public UserChangedEvent(UUID userId) {
+        super("USER_CHANGED");
+        this.userId = userId;
+    }
+}
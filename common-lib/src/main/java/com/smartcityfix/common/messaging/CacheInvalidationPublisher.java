@@ -0,0 +1,50 @@
+package com.smartcityfix.common.messaging;
+
+import com.smartcityfix.common.event.CacheInvalidationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Asks gateways to drop cached responses for the given path patterns. Inside a transaction
+ * the message is sent after commit, so a gateway that refetches straight away cannot cache
+ * the old data again. Failures are logged only; cached entries still expire on their TTL.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final EventTopology eventTopology;
+
+    public CacheInvalidationPublisher(RabbitTemplate rabbitTemplate, EventTopology eventTopology) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventTopology = eventTopology;
+    }
+
+    public void invalidate(String... paths) {
+        List<String> patterns = List.of(paths);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(patterns);
+                }
+            });
+        } else {
+            publish(patterns);
+        }
+    }
+
+    private void publish(List<String> paths) {
+        try {
+            rabbitTemplate.convertAndSend(eventTopology.getExchange(), EventRoute.CACHE_INVALIDATED.getRoutingKey(),
+                    new CacheInvalidationEvent(paths));
+            log.debug("Published cache invalidation for {}", paths);
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation for {}: {}", paths, e.getMessage());
+        }
+    }
+}
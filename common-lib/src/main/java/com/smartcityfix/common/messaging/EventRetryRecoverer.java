@@ -0,0 +1,120 @@
+package com.smartcityfix.common.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles a message whose listener threw by moving it to the next delayed retry tier of
+ * its queue, or to the parking lot once every tier has been tried. Messages that can never
+ * succeed, such as payloads that cannot be converted, are parked immediately.
+ *
+ * <p>The message is republished before the original delivery is acknowledged, and only
+ * after the broker confirms it. If the republish fails the delivery is rejected instead and
+ * the queue's dead-letter settings send it to the parking lot.
+ */
+@Slf4j
+public class EventRetryRecoverer implements MessageBatchRecoverer {
+
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String ERROR_HEADER = "x-retry-last-error";
+
+    private static final String DEFAULT_EXCHANGE = "";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final EventTopology eventTopology;
+    private final Duration confirmTimeout;
+    private final ConditionalRejectingErrorHandler.DefaultExceptionStrategy fatalExceptions =
+            new ConditionalRejectingErrorHandler.DefaultExceptionStrategy();
+
+    public EventRetryRecoverer(RabbitTemplate rabbitTemplate, EventTopology eventTopology, Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.eventTopology = eventTopology;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @Override
+    public void recover(Message message, Throwable cause) {
+        recover(List.of(message), cause);
+    }
+
+    @Override
+    public void recover(List<Message> messages, Throwable cause) {
+        List<CorrelationData> confirms = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            confirms.add(republish(message, cause));
+        }
+        for (CorrelationData confirm : confirms) {
+            awaitConfirm(confirm);
+        }
+    }
+
+    private CorrelationData republish(Message message, Throwable cause) {
+        MessageProperties properties = message.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        int attempt = attempt(properties) + 1;
+
+        String target;
+        if (fatalExceptions.isFatal(cause)) {
+            target = eventTopology.parkingLot(queue);
+            log.error("Parking unprocessable message {} from {}", properties.getMessageId(), queue, cause);
+        } else if (attempt > eventTopology.getRetryDelays().size()) {
+            target = eventTopology.parkingLot(queue);
+            log.error("Parking message {} from {} after {} failed attempts", properties.getMessageId(), queue, attempt, cause);
+        } else {
+            target = eventTopology.retryQueue(queue, attempt);
+            log.warn("Retrying message {} from {} in {} (attempt {}): {}", properties.getMessageId(), queue,
+                    eventTopology.getRetryDelays().get(attempt - 1), attempt, rootMessage(cause));
+        }
+
+        properties.setHeader(ATTEMPT_HEADER, attempt);
+        properties.setHeader(ERROR_HEADER, rootMessage(cause));
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+
+        CorrelationData correlation = new CorrelationData();
+        rabbitTemplate.send(DEFAULT_EXCHANGE, target, message, correlation);
+        return correlation;
+    }
+
+    private void awaitConfirm(CorrelationData correlation) {
+        try {
+            CorrelationData.Confirm confirm = correlation.getFuture().get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                throw new AmqpException("Broker rejected republished message: " + confirm.getReason());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted waiting for republish confirm", e);
+        } catch (AmqpException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AmqpException("Republished message not confirmed within " + confirmTimeout, e);
+        }
+    }
+
+    private int attempt(MessageProperties properties) {
+        Object attempt = properties.getHeader(ATTEMPT_HEADER);
+        return attempt instanceof Number number ? number.intValue() : 0;
+    }
+
+    private String rootMessage(Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getClass().getSimpleName() + ": " + root.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
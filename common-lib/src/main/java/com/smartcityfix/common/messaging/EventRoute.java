@@ -0,0 +1,42 @@
+package com.smartcityfix.common.messaging;
+
+import java.util.Arrays;
+
+/**
+ * Every event published on the shared topic exchange. The name identifies the event in
+ * configuration and queue names; the routing key is what publishers send with.
+ */
+public enum EventRoute {
+
+    USER_REGISTERED("user-registered", "user.registered"),
+    USER_CHANGED("user-changed", "user.changed"),
+    COMPLAINT_CREATED("complaint-created", "complaint.created"),
+    COMPLAINT_ASSIGNED("complaint-assigned", "complaint.assigned"),
+    COMPLAINT_STATUS_UPDATED("complaint-status-updated", "complaint.status-updated"),
+    COMPLAINT_RESOLVED("complaint-resolved", "complaint.resolved"),
+    FEEDBACK_CREATED("feedback-created", "feedback.created"),
+    CACHE_INVALIDATED("cache-invalidated", "cache.invalidated");
+
+    private final String eventName;
+    private final String routingKey;
+
+    EventRoute(String eventName, String routingKey) {
+        this.eventName = eventName;
+        this.routingKey = routingKey;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public static EventRoute fromEventName(String eventName) {
+        return Arrays.stream(values())
+                .filter(route -> route.eventName.equals(eventName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown event: " + eventName));
+    }
+}
@@ -0,0 +1,60 @@
+package com.smartcityfix.common.messaging;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Naming rules for the shared event topology. Each consuming service gets its own queue per
+ * event, named {@code smartcityfix.<service>.<event>}, so every subscriber receives every
+ * event and instances of the same service compete only among themselves.
+ *
+ * <p>Every queue has delayed retry tiers {@code <queue>.retry.<n>} that dead-letter back into
+ * it once their TTL expires, and a {@code <queue>.parking-lot} for messages that exhausted
+ * them. Listeners refer to their queues through this bean, for example
+ * {@code @RabbitListener(queues = "#{@eventTopology.queue('complaint-created')}")}.
+ */
+public class EventTopology {
+
+    private static final String QUEUE_PREFIX = "smartcityfix.";
+
+    private final String exchange;
+    private final String service;
+    private final List<Duration> retryDelays;
+
+    public EventTopology(String exchange, String service, List<Duration> retryDelays) {
+        this.exchange = exchange;
+        this.service = service;
+        this.retryDelays = List.copyOf(retryDelays);
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public List<Duration> getRetryDelays() {
+        return retryDelays;
+    }
+
+    public String queue(String eventName) {
+        return queue(EventRoute.fromEventName(eventName));
+    }
+
+    public String queue(EventRoute route) {
+        return QUEUE_PREFIX + service + "." + route.getEventName();
+    }
+
+    /**
+     * Retry tier of a queue, numbered from 1.
+     */
+    public String retryQueue(String queue, int tier) {
+        return queue + ".retry." + tier;
+    }
+
+    public String parkingLot(String queue) {
+        return queue + ".parking-lot";
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartcityfix.common.messaging;
+
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Declares the shared topic exchange and this service's subscription queues with their
+ * retry tiers and parking lots, so the topology is defined once here instead of in every
+ * service's RabbitMQConfig.
+ */
+@AutoConfiguration
+@ConditionalOnClass(RabbitTemplate.class)
+@EnableConfigurationProperties(MessagingProperties.class)
+public class EventTopologyAutoConfiguration {
+
+    private static final String SERVICE_SUFFIX = "-service";
+    private static final String DEFAULT_EXCHANGE = "";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EventTopology eventTopology(MessagingProperties properties, Environment environment) {
+        String service = properties.getService();
+        if (!StringUtils.hasText(service)) {
+            service = environment.getRequiredProperty("spring.application.name");
+            if (service.endsWith(SERVICE_SUFFIX)) {
+                service = service.substring(0, service.length() - SERVICE_SUFFIX.length());
+            }
+        }
+        return new EventTopology(properties.getExchange(), service, properties.getRetry().delays());
+    }
+
+    @Bean
+    public Declarables eventDeclarables(EventTopology eventTopology, MessagingProperties properties) {
+        TopicExchange exchange = new TopicExchange(eventTopology.getExchange(), true, false);
+
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(exchange);
+        for (EventRoute route : new LinkedHashSet<>(properties.getSubscriptions())) {
+            String name = eventTopology.queue(route);
+            String parkingLot = eventTopology.parkingLot(name);
+
+            // Messages the listener rejects outright (for example when the retry republish
+            // itself fails) are dead-lettered straight to the parking lot
+            Queue queue = QueueBuilder.durable(name)
+                    .deadLetterExchange(DEFAULT_EXCHANGE)
+                    .deadLetterRoutingKey(parkingLot)
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with(route.getRoutingKey()));
+
+            // Each tier holds messages for its delay, then dead-letters them back to the queue
+            List<Duration> delays = eventTopology.getRetryDelays();
+            for (int tier = 1; tier <= delays.size(); tier++) {
+                declarables.add(QueueBuilder.durable(eventTopology.retryQueue(name, tier))
+                        .ttl((int) delays.get(tier - 1).toMillis())
+                        .deadLetterExchange(DEFAULT_EXCHANGE)
+                        .deadLetterRoutingKey(name)
+                        .build());
+            }
+            declarables.add(QueueBuilder.durable(parkingLot).build());
+        }
+        return new Declarables(declarables);
+    }
+}
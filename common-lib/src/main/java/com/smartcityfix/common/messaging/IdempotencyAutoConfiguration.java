@@ -0,0 +1,53 @@
+package com.smartcityfix.common.messaging;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Enables {@link IdempotentListener} in services that consume events and have a database.
+ * Each such service needs a {@code processed_events} table in its own schema.
+ */
+@AutoConfiguration(after = {JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+@ConditionalOnClass({RabbitTemplate.class, JdbcTemplate.class})
+@ConditionalOnBean({JdbcTemplate.class, TransactionTemplate.class})
+@ConditionalOnExpression("'${app.messaging.subscriptions[0]:}' != '' and ${app.messaging.idempotency.enabled:true}")
+@EnableConfigurationProperties(MessagingProperties.class)
+public class IdempotencyAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ProcessedEventStore processedEventStore(JdbcTemplate jdbcTemplate, MessagingProperties properties) {
+        return new ProcessedEventStore(jdbcTemplate, properties.getIdempotency());
+    }
+
+    // Lazy, so creating the advisor while post-processors are set up does not pull the
+    // store and its data source in early. Ordered outside any other listener advice, which
+    // then only sees events that are actually processed
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor idempotentListenerAdvisor(@Lazy ProcessedEventStore processedEventStore,
+                                                    @Lazy TransactionTemplate transactionTemplate) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(IdempotentListener.class),
+                new IdempotentListenerInterceptor(processedEventStore, transactionTemplate));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
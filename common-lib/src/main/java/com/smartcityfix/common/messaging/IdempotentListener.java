@@ -0,0 +1,27 @@
+package com.smartcityfix.common.messaging;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a listener method whose {@code BaseEvent} argument, or {@code List} of events for a
+ * batch listener, should be processed at most once per event id. Duplicates are dropped
+ * before the method runs, and a batch is passed on with only its unseen events.
+ *
+ * <p>The method runs in a transaction together with the record of the processed ids, so
+ * its database changes and the record commit or roll back as one.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface IdempotentListener {
+
+    /**
+     * Consumer name the processed ids are recorded under; defaults to
+     * {@code ClassName.methodName}.
+     */
+    String value() default "";
+}
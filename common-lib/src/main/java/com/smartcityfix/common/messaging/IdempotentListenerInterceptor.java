@@ -0,0 +1,140 @@
+package com.smartcityfix.common.messaging;
+
+import com.smartcityfix.common.event.BaseEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies {@link IdempotentListener}: drops events the consumer has already processed,
+ * then runs the listener and the claim of the remaining ids in one transaction, and
+ * remembers the ids in memory once it commits. Events without an id are always processed.
+ */
+@Slf4j
+public class IdempotentListenerInterceptor implements MethodInterceptor {
+
+    private final ProcessedEventStore store;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotentListenerInterceptor(ProcessedEventStore store, TransactionTemplate transactionTemplate) {
+        this.store = store;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        int index = eventArgumentIndex(invocation.getArguments());
+        if (index < 0) {
+            return invocation.proceed();
+        }
+
+        String consumer = consumerName(invocation.getMethod());
+        Object argument = invocation.getArguments()[index];
+        boolean batch = argument instanceof List<?>;
+        List<BaseEvent> events = batch ? events((List<?>) argument) : List.of((BaseEvent) argument);
+
+        // Hot path: duplicates seen recently by this instance never reach the database
+        Map<UUID, BaseEvent> unseen = new LinkedHashMap<>();
+        List<BaseEvent> withoutId = new ArrayList<>();
+        for (BaseEvent event : events) {
+            if (event.getEventId() == null) {
+                withoutId.add(event);
+            } else if (!store.isRecentlyProcessed(consumer, event.getEventId())) {
+                unseen.putIfAbsent(event.getEventId(), event);
+            }
+        }
+        if (unseen.isEmpty() && withoutId.isEmpty()) {
+            log.info("Skipping {} already processed event(s) in {}", events.size(), consumer);
+            return null;
+        }
+
+        Object result = execute(() -> {
+            List<UUID> claimed = unseen.isEmpty() ? List.of() : store.claim(consumer, new ArrayList<>(unseen.keySet()));
+            if (claimed.size() < unseen.size()) {
+                log.info("Skipping {} already processed event(s) in {}", unseen.size() - claimed.size(), consumer);
+            }
+
+            List<BaseEvent> toProcess = new ArrayList<>(withoutId);
+            claimed.forEach(eventId -> toProcess.add(unseen.get(eventId)));
+            if (toProcess.isEmpty()) {
+                return new Claimed(null, claimed);
+            }
+
+            invocation.getArguments()[index] = batch ? toProcess : toProcess.get(0);
+            return new Claimed(invocation.proceed(), claimed);
+        });
+
+        Claimed claimed = (Claimed) result;
+        store.remember(consumer, claimed.eventIds());
+        return claimed.result();
+    }
+
+    private Object execute(ThrowingSupplier work) throws Throwable {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return work.get();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CheckedWrapper(e);
+                }
+            });
+        } catch (CheckedWrapper e) {
+            throw e.getCause();
+        }
+    }
+
+    private int eventArgumentIndex(Object[] arguments) {
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            if (argument instanceof BaseEvent) {
+                return i;
+            }
+            if (argument instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof BaseEvent) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<BaseEvent> events(List<?> argument) {
+        List<BaseEvent> events = new ArrayList<>(argument.size());
+        for (Object element : argument) {
+            events.add((BaseEvent) element);
+        }
+        return events;
+    }
+
+    private String consumerName(Method method) {
+        IdempotentListener annotation = AnnotatedElementUtils.findMergedAnnotation(method, IdempotentListener.class);
+        if (annotation != null && StringUtils.hasText(annotation.value())) {
+            return annotation.value();
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier {
+        Object get() throws Throwable;
+    }
+
+    private record Claimed(Object result, List<UUID> eventIds) {
+    }
+
+    private static final class CheckedWrapper extends RuntimeException {
+        CheckedWrapper(Throwable cause) {
+            super(cause);
+        }
+    }
+}
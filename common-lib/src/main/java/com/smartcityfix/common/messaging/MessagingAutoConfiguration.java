@@ -0,0 +1,182 @@
+package com.smartcityfix.common.messaging;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.smartcityfix.common.event.CacheInvalidationEvent;
+import com.smartcityfix.common.event.ComplaintAssignedEvent;
+import com.smartcityfix.common.event.ComplaintCreatedEvent;
+import com.smartcityfix.common.event.ComplaintResolvedEvent;
+import com.smartcityfix.common.event.FeedbackCreatedEvent;
+import com.smartcityfix.common.event.UserChangedEvent;
+import com.smartcityfix.common.event.UserRegisteredEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The messaging stack every service shares: one event converter with selectable codecs, publisher confirm and
+ * return handling on Boot's RabbitTemplate, tiered retry and parking of failed deliveries,
+ * and a batch listener container factory. The
+ * connection factory, template and default container factory stay Boot's own, tuned
+ * through the defaults in {@link MessagingDefaultsEnvironmentPostProcessor}.
+ */
+@AutoConfiguration(after = RabbitAutoConfiguration.class)
+@ConditionalOnClass(RabbitTemplate.class)
+@EnableConfigurationProperties(MessagingProperties.class)
+@Slf4j
+public class MessagingAutoConfiguration {
+
+    /**
+     * Short type ids written in the __TypeId__ header instead of fully-qualified class names.
+     * Listeners resolve the payload type from their method signature first, and unknown ids
+     * fall back to class names, so messages from older publishers are still readable.
+     */
+    static final Map<String, Class<?>> EVENT_TYPE_IDS;
+
+    static {
+        Map<String, Class<?>> typeIds = new LinkedHashMap<>();
+        typeIds.put("user-registered", UserRegisteredEvent.class);
+        typeIds.put("user-changed", UserChangedEvent.class);
+        typeIds.put("complaint-created", ComplaintCreatedEvent.class);
+        typeIds.put("complaint-assigned", ComplaintAssignedEvent.class);
+        typeIds.put("complaint-resolved", ComplaintResolvedEvent.class);
+        typeIds.put("feedback-created", FeedbackCreatedEvent.class);
+        typeIds.put("cache-invalidated", CacheInvalidationEvent.class);
+        EVENT_TYPE_IDS = Map.copyOf(typeIds);
+    }
+
+    /**
+     * Publishes in the configured codec and decodes incoming messages by content type, so
+     * JSON and Smile publishers can coexist while a codec change rolls out.
+     */
+    @Bean
+    @ConditionalOnMissingBean(MessageConverter.class)
+    public ContentTypeDelegatingMessageConverter eventMessageConverter(MessagingProperties properties) {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter(configure(JsonMapper.builder()).build());
+        json.setJavaTypeMapper(eventTypeMapper());
+
+        // Numeric timestamps are both smaller and cheaper to parse than ISO strings
+        SmileMessageConverter smile = new SmileMessageConverter(configure(SmileMapper.builder())
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        smile.setJavaTypeMapper(eventTypeMapper());
+
+        MessageConverter publishConverter = properties.getCodec() == EventCodec.SMILE ? smile : json;
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(publishConverter);
+        converter.addDelegate(EventCodec.JSON.getContentType(), json);
+        converter.addDelegate(EventCodec.SMILE.getContentType(), smile);
+        return converter;
+    }
+
+    @Bean
+    public RabbitTemplateCustomizer eventRabbitTemplateCustomizer() {
+        return template -> {
+            template.setConfirmCallback((correlation, ack, cause) -> {
+                if (!ack) {
+                    log.error("Broker rejected published message {}: {}", correlation != null ? correlation.getId() : "-", cause);
+                }
+            });
+            template.setReturnsCallback(returned -> log.error("Unroutable message returned from {} with routing key {}: {} {}",
+                    returned.getExchange(), returned.getRoutingKey(), returned.getReplyCode(), returned.getReplyText()));
+        };
+    }
+
+    private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configure(B builder) {
+        return builder
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private static DefaultJackson2JavaTypeMapper eventTypeMapper() {
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setIdClassMapping(EVENT_TYPE_IDS);
+        typeMapper.setTrustedPackages("com.smartcityfix.common.event");
+        return typeMapper;
+    }
+
+    /**
+     * Failed deliveries go to the queue's retry tiers and finally its parking lot. Boot's
+     * listener retry hands them here after the single in-process attempt configured in
+     * {@link MessagingDefaultsEnvironmentPostProcessor}, for plain and batch listeners alike.
+     */
+    @Bean
+    @ConditionalOnMissingBean(MessageRecoverer.class)
+    public EventRetryRecoverer eventRetryRecoverer(RabbitTemplate rabbitTemplate, EventTopology eventTopology,
+                                                   MessagingProperties properties) {
+        return new EventRetryRecoverer(rabbitTemplate, eventTopology, properties.getReplay().getConfirmTimeout());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(RabbitTemplate rabbitTemplate, EventTopology eventTopology) {
+        return new CacheInvalidationPublisher(rabbitTemplate, eventTopology);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ParkingLotReplayer parkingLotReplayer(RabbitTemplate rabbitTemplate, AmqpAdmin amqpAdmin,
+                                                 EventTopology eventTopology, MessagingProperties properties) {
+        return new ParkingLotReplayer(rabbitTemplate, amqpAdmin, eventTopology, properties.getReplay());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class ParkingLotEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ParkingLotEndpoint parkingLotEndpoint(ParkingLotReplayer parkingLotReplayer, MessagingProperties properties) {
+            return new ParkingLotEndpoint(parkingLotReplayer, properties);
+        }
+    }
+
+    /**
+     * Container factory for listeners that consume a {@code List} of events. Messages are
+     * pulled until either the batch size is reached or the receive timeout expires, so
+     * bursts are handled in a single call.
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "batchListenerContainerFactory")
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            ObjectProvider<ContainerCustomizer<SimpleMessageListenerContainer>> containerCustomizer,
+            MessagingProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        containerCustomizer.ifUnique(factory::setContainerCustomizer);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(properties.getListener().getBatchSize());
+        factory.setReceiveTimeout(properties.getListener().getBatchReceiveTimeout());
+        return factory;
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartcityfix.common.messaging;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Shared defaults for Spring Boot's RabbitMQ auto-configuration. They are added with the
+ * lowest precedence, so anything a service sets in its own configuration still wins.
+ */
+public class MessagingDefaultsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String PROPERTY_SOURCE_NAME = "smartcityfixMessagingDefaults";
+
+    private static final Map<String, Object> DEFAULTS = Map.ofEntries(
+            // Reuse channels across publishes instead of opening one per send
+            Map.entry("spring.rabbitmq.cache.channel.size", 25),
+            Map.entry("spring.rabbitmq.cache.channel.checkout-timeout", "2s"),
+            // Broker acknowledgements and returns for every publish, handled asynchronously
+            Map.entry("spring.rabbitmq.publisher-confirm-type", "correlated"),
+            Map.entry("spring.rabbitmq.publisher-returns", true),
+            Map.entry("spring.rabbitmq.template.mandatory", true),
+            // Enough in-flight deliveries to keep consumers busy without hoarding the queue
+            Map.entry("spring.rabbitmq.listener.simple.prefetch", 50),
+            Map.entry("spring.rabbitmq.listener.simple.concurrency", 1),
+            Map.entry("spring.rabbitmq.listener.simple.max-concurrency", 4),
+            // No in-process retry: a failed delivery goes straight to EventRetryRecoverer, which
+            // delays it in a retry tier instead of blocking the consumer, and is never requeued
+            Map.entry("spring.rabbitmq.listener.simple.retry.enabled", true),
+            Map.entry("spring.rabbitmq.listener.simple.retry.max-attempts", 1),
+            Map.entry("spring.rabbitmq.listener.simple.default-requeue-rejected", false)
+    );
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getPropertySources().contains(PROPERTY_SOURCE_NAME)) {
+            environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, DEFAULTS));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartcityfix.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Observes event publishes and deliveries with Micrometer. With a tracer on the classpath
+ * each publish and each delivery to a plain listener becomes a span, and the trace context
+ * travels in the message headers, so a request and the events it causes share one trace
+ * across services. Complaint events additionally feed the pipeline latency timer of
+ * {@link PipelineLatencyInterceptor}.
+ */
+@AutoConfiguration(after = RabbitAutoConfiguration.class)
+@ConditionalOnClass({RabbitTemplate.class, MeterRegistry.class})
+@ConditionalOnProperty(prefix = "app.messaging.observation", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(MessagingProperties.class)
+public class MessagingObservationAutoConfiguration {
+
+    @Bean
+    public RabbitTemplateCustomizer observationRabbitTemplateCustomizer() {
+        return template -> template.setObservationEnabled(true);
+    }
+
+    /**
+     * Applied by Boot to its default container factory and by
+     * {@link MessagingAutoConfiguration} to the batch one.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ContainerCustomizer<SimpleMessageListenerContainer> observationContainerCustomizer() {
+        return container -> container.setObservationEnabled(true);
+    }
+
+    // Providers, so creating the advisor while post-processors are set up does not pull
+    // the registry and properties in early. Ordered inside the idempotency advice, so
+    // events skipped as duplicates are not recorded
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor pipelineLatencyAdvisor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                 ObjectProvider<MessagingProperties> properties) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(RabbitListener.class),
+                new PipelineLatencyInterceptor(meterRegistry, properties));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,153 @@
+package com.smartcityfix.common.messaging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.messaging")
+public class MessagingProperties {
+
+    /**
+     * Topic exchange all events are published to.
+     */
+    private String exchange = "smartcityfix.events";
+
+    /**
+     * Name used in this service's queue names; defaults to spring.application.name
+     * without the "-service" suffix.
+     */
+    private String service;
+
+    /**
+     * Events this service consumes. One durable queue is declared and bound per entry.
+     */
+    private List<EventRoute> subscriptions = new ArrayList<>();
+
+    /**
+     * Format this service publishes events in. Switch publishers to SMILE only once every
+     * consumer of their events runs a version that can read it.
+     */
+    private EventCodec codec = EventCodec.JSON;
+
+    private Listener listener = new Listener();
+
+    private Retry retry = new Retry();
+
+    private Replay replay = new Replay();
+
+    private Idempotency idempotency = new Idempotency();
+
+    private Observation observation = new Observation();
+
+    @Data
+    public static class Listener {
+
+        /**
+         * Maximum number of messages handed to a batch listener in one call.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Milliseconds to wait for a batch to fill before delivering a partial one.
+         */
+        private long batchReceiveTimeout = 500;
+    }
+
+    @Data
+    public static class Retry {
+
+        /**
+         * Number of delayed retry tiers a failed message passes through before it is parked.
+         */
+        private int tiers = 3;
+
+        /**
+         * Delay of the first tier.
+         */
+        private Duration initialDelay = Duration.ofSeconds(1);
+
+        /**
+         * Factor applied to the delay of each further tier.
+         */
+        private double multiplier = 5.0;
+
+        /**
+         * Delays of the retry tiers, in order.
+         */
+        public List<Duration> delays() {
+            List<Duration> delays = new ArrayList<>(tiers);
+            double delayMs = initialDelay.toMillis();
+            for (int i = 0; i < tiers; i++) {
+                delays.add(Duration.ofMillis(Math.round(delayMs)));
+                delayMs *= multiplier;
+            }
+            return delays;
+        }
+    }
+
+    @Data
+    public static class Replay {
+
+        /**
+         * Messages moved per second when replaying a parking lot, unless the request says otherwise.
+         */
+        private int rate = 10;
+
+        /**
+         * Upper bound on the messages moved by one replay request.
+         */
+        private int maxMessages = 10000;
+
+        /**
+         * How long to wait for the broker to confirm each replayed message.
+         */
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Idempotency {
+
+        /**
+         * Whether {@code @IdempotentListener} methods skip events they have already processed.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of recently processed event ids kept in memory per instance.
+         */
+        private int cacheSize = 50000;
+
+        /**
+         * How long processed event ids are kept in the database. Must exceed the longest
+         * time a message can spend in retry tiers and the parking lot before being replayed.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        /**
+         * How often expired ids are deleted.
+         */
+        private Duration purgeInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Observation {
+
+        /**
+         * Whether publishes and deliveries are observed, which traces them and carries the
+         * trace context in message headers.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Histogram bucket bounds of the complaint pipeline latency timer.
+         */
+        private List<Duration> pipelineLatencyBuckets = new ArrayList<>(List.of(
+                Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+                Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10),
+                Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(30)));
+    }
+}
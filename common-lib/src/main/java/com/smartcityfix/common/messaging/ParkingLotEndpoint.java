@@ -0,0 +1,50 @@
+package com.smartcityfix.common.messaging;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin view of this service's parking lots. {@code GET /actuator/parkinglot} lists parked
+ * message counts and the last replay; {@code POST /actuator/parkinglot/{event}} with an
+ * optional {@code {"limit": 500, "rate": 20}} body replays parked messages of one event.
+ *
+ * <p>The services do not authenticate actuator requests, so the endpoint is not part of their
+ * web exposure. Reach it over JMX, or add it to {@code management.endpoints.web.exposure.include}
+ * only together with a {@code management.server.port} that is not reachable from outside.
+ */
+@Endpoint(id = "parkinglot")
+public class ParkingLotEndpoint {
+
+    private final ParkingLotReplayer replayer;
+    private final MessagingProperties properties;
+
+    public ParkingLotEndpoint(ParkingLotReplayer replayer, MessagingProperties properties) {
+        this.replayer = replayer;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> parkingLots() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("parked", replayer.parkedCounts(properties.getSubscriptions()));
+        result.put("replay", replayer.getStatus());
+        return result;
+    }
+
+    @WriteOperation
+    public ParkingLotReplayer.ReplayStatus replay(@Selector String event, @Nullable Integer limit, @Nullable Integer rate) {
+        EventRoute route = properties.getSubscriptions().stream()
+                .filter(subscription -> subscription.getEventName().equals(event))
+                .findFirst()
+                .orElseThrow(() -> new InvalidEndpointRequestException("Service is not subscribed to " + event,
+                        "Unknown subscription"));
+        return replayer.start(route, limit, rate);
+    }
+}
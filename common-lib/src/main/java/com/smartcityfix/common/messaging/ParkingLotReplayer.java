@@ -0,0 +1,203 @@
+package com.smartcityfix.common.messaging;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves parked messages back to their queue at a bounded rate, so a backlog parked during
+ * an outage can be drained without flooding the listeners that just recovered. Replayed
+ * messages start again with a fresh set of retry tiers.
+ *
+ * <p>Each message is fetched unacknowledged, republished, and only acknowledged once the
+ * broker confirms the republish, so a failure part way leaves it in the parking lot. One
+ * replay runs at a time per instance.
+ */
+@Slf4j
+public class ParkingLotReplayer {
+
+    private static final String DEFAULT_EXCHANGE = "";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final EventTopology eventTopology;
+    private final MessagingProperties.Replay properties;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "parking-lot-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<ReplayStatus> current = new AtomicReference<>();
+
+    public ParkingLotReplayer(RabbitTemplate rabbitTemplate, AmqpAdmin amqpAdmin, EventTopology eventTopology,
+                              MessagingProperties.Replay properties) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.eventTopology = eventTopology;
+        this.properties = properties;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Number of parked messages per subscribed queue.
+     */
+    public Map<String, Integer> parkedCounts(Iterable<EventRoute> routes) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (EventRoute route : routes) {
+            QueueInformation info = amqpAdmin.getQueueInfo(eventTopology.parkingLot(eventTopology.queue(route)));
+            counts.put(route.getEventName(), info != null ? info.getMessageCount() : 0);
+        }
+        return counts;
+    }
+
+    public ReplayStatus getStatus() {
+        return current.get();
+    }
+
+    /**
+     * Starts replaying up to {@code limit} parked messages of the given event at
+     * {@code rate} messages per second. Returns the running replay instead if there is one.
+     */
+    public ReplayStatus start(EventRoute route, Integer limit, Integer rate) {
+        int maxMessages = Math.min(limit != null && limit > 0 ? limit : properties.getMaxMessages(), properties.getMaxMessages());
+        int perSecond = rate != null && rate > 0 ? rate : properties.getRate();
+        String queue = eventTopology.queue(route);
+
+        ReplayStatus status = new ReplayStatus(route.getEventName(), maxMessages, perSecond, Instant.now());
+        ReplayStatus running = current.get();
+        if (running != null && running.isRunning()) {
+            return running;
+        }
+        if (!current.compareAndSet(running, status)) {
+            return current.get();
+        }
+
+        executor.execute(() -> replay(queue, status));
+        return status;
+    }
+
+    private void replay(String queue, ReplayStatus status) {
+        String parkingLot = eventTopology.parkingLot(queue);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / status.getRate();
+        long next = System.nanoTime();
+
+        log.info("Replaying up to {} messages from {} at {}/s", status.getLimit(), parkingLot, status.getRate());
+        try {
+            while (status.getReplayed() < status.getLimit() && !Thread.currentThread().isInterrupted()) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                next += intervalNanos;
+
+                if (!moveOne(parkingLot, queue)) {
+                    break;
+                }
+                status.replayed++;
+            }
+        } catch (Exception e) {
+            status.error = e.getMessage();
+            log.error("Replay from {} stopped after {} messages", parkingLot, status.getReplayed(), e);
+        } finally {
+            status.finishedAt = Instant.now();
+            log.info("Replayed {} messages from {}", status.getReplayed(), parkingLot);
+        }
+    }
+
+    private boolean moveOne(String parkingLot, String queue) {
+        Boolean moved = rabbitTemplate.execute(channel -> {
+            GetResponse response = channel.basicGet(parkingLot, false);
+            if (response == null) {
+                return false;
+            }
+
+            long deliveryTag = response.getEnvelope().getDeliveryTag();
+            try {
+                AMQP.BasicProperties original = response.getProps();
+                Map<String, Object> headers = original.getHeaders() != null
+                        ? new HashMap<>(original.getHeaders()) : new HashMap<>();
+                headers.remove(EventRetryRecoverer.ATTEMPT_HEADER);
+
+                channel.basicPublish(DEFAULT_EXCHANGE, queue, original.builder().headers(headers).build(), response.getBody());
+                if (channel.getNextPublishSeqNo() > 0) {
+                    channel.waitForConfirmsOrDie(properties.getConfirmTimeout().toMillis());
+                }
+                channel.basicAck(deliveryTag, false);
+                return true;
+            } catch (Exception e) {
+                channel.basicNack(deliveryTag, false, true);
+                throw e;
+            }
+        });
+        return Boolean.TRUE.equals(moved);
+    }
+
+    public static class ReplayStatus {
+
+        private final String event;
+        private final int limit;
+        private final int rate;
+        private final Instant startedAt;
+        private volatile int replayed;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        ReplayStatus(String event, int limit, int rate, Instant startedAt) {
+            this.event = event;
+            this.limit = limit;
+            this.rate = rate;
+            this.startedAt = startedAt;
+        }
+
+        public String getEvent() {
+            return event;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getRate() {
+            return rate;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public int getReplayed() {
+            return replayed;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isRunning() {
+            return finishedAt == null;
+        }
+    }
+}
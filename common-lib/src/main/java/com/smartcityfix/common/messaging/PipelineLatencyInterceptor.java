@@ -0,0 +1,91 @@
+package com.smartcityfix.common.messaging;
+
+import com.smartcityfix.common.event.BaseEvent;
+import com.smartcityfix.common.event.ComplaintAssignedEvent;
+import com.smartcityfix.common.event.ComplaintCreatedEvent;
+import com.smartcityfix.common.event.ComplaintResolvedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the {@value #TIMER_NAME} timer for complaint events: the time from the event's
+ * {@link BaseEvent#getTimestamp() timestamp} to the end of a successful listener call,
+ * tagged with the event type and the consuming listener. Each hop of the pipeline shows
+ * up under its own event type; traces connect the hops of a single complaint.
+ *
+ * <p>Timestamps are local times of the publishing service, so all services are expected
+ * to run in the same time zone. Negative latencies from clock skew are not recorded.
+ */
+public class PipelineLatencyInterceptor implements MethodInterceptor {
+
+    public static final String TIMER_NAME = "complaint.pipeline.latency";
+
+    private static final Set<Class<?>> COMPLAINT_EVENTS = Set.of(
+            ComplaintCreatedEvent.class, ComplaintAssignedEvent.class, ComplaintResolvedEvent.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<MessagingProperties> properties;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public PipelineLatencyInterceptor(ObjectProvider<MeterRegistry> meterRegistry,
+                                      ObjectProvider<MessagingProperties> properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof List<?> list) {
+                list.forEach(element -> record(invocation.getMethod(), element, now));
+            } else {
+                record(invocation.getMethod(), argument, now);
+            }
+        }
+        return result;
+    }
+
+    private void record(Method method, Object argument, LocalDateTime now) {
+        if (!(argument instanceof BaseEvent event) || !COMPLAINT_EVENTS.contains(event.getClass())
+                || event.getTimestamp() == null) {
+            return;
+        }
+        Duration latency = Duration.between(event.getTimestamp(), now);
+        if (latency.isNegative()) {
+            return;
+        }
+        Timer timer = timer(method, event.getEventType());
+        if (timer != null) {
+            timer.record(latency);
+        }
+    }
+
+    private Timer timer(Method method, String eventType) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return null;
+        }
+        String consumer = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return timers.computeIfAbsent(consumer + '|' + eventType, key -> Timer.builder(TIMER_NAME)
+                .description("Time from a complaint event being raised to a consumer completing it")
+                .tag("event", String.valueOf(eventType))
+                .tag("consumer", consumer)
+                .serviceLevelObjectives(properties.getObject().getObservation().getPipelineLatencyBuckets()
+                        .toArray(Duration[]::new))
+                .register(registry));
+    }
+}
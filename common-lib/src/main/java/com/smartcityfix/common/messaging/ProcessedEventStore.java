@@ -0,0 +1,125 @@
+package com.smartcityfix.common.messaging;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records which events each consumer has processed, in the service's
+ * {@code processed_events} table with a bounded in-memory LRU in front of it. A redelivered
+ * event is normally still in the LRU, so it is recognised without a database round trip;
+ * new events are claimed with a single insert that also catches duplicates the LRU missed.
+ *
+ * <p>Claims must be made inside the transaction of the work they guard, and only enter
+ * the LRU once that transaction commits.
+ */
+@Slf4j
+public class ProcessedEventStore {
+
+    private static final String CLAIM_SQL = "INSERT INTO processed_events (consumer, event_id, processed_at) "
+            + "VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String PURGE_SQL = "DELETE FROM processed_events WHERE processed_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessagingProperties.Idempotency properties;
+    private final Map<Key, Boolean> recent;
+
+    private ScheduledExecutorService purger;
+
+    public ProcessedEventStore(JdbcTemplate jdbcTemplate, MessagingProperties.Idempotency properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        int cacheSize = properties.getCacheSize();
+        this.recent = new LinkedHashMap<>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void init() {
+        long intervalMs = properties.getPurgeInterval().toMillis();
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "processed-event-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Returns true if the consumer is known to have processed the event, from memory only.
+     */
+    public boolean isRecentlyProcessed(String consumer, UUID eventId) {
+        synchronized (recent) {
+            return recent.get(new Key(consumer, eventId)) != null;
+        }
+    }
+
+    /**
+     * Claims the given events for the consumer in the current transaction and returns the
+     * ids that were not claimed before. Ids that turn out to be duplicates are remembered.
+     */
+    public List<UUID> claim(String consumer, List<UUID> eventIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(CLAIM_SQL, eventIds, eventIds.size(), (ps, eventId) -> {
+            ps.setString(1, consumer);
+            ps.setObject(2, eventId);
+            ps.setTimestamp(3, now);
+        });
+
+        List<UUID> claimed = new ArrayList<>(eventIds.size());
+        List<UUID> duplicates = new ArrayList<>();
+        for (int i = 0; i < eventIds.size(); i++) {
+            // A driver that reports no row count (SUCCESS_NO_INFO) is treated as a new claim
+            (counts[0][i] == 0 ? duplicates : claimed).add(eventIds.get(i));
+        }
+        remember(consumer, duplicates);
+        return claimed;
+    }
+
+    public void remember(String consumer, Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        synchronized (recent) {
+            for (UUID eventId : eventIds) {
+                recent.put(new Key(consumer, eventId), Boolean.TRUE);
+            }
+        }
+    }
+
+    void purgeExpired() {
+        try {
+            int deleted = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(properties.getRetention())));
+            if (deleted > 0) {
+                log.info("Purged {} processed event records older than {}", deleted, properties.getRetention());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge processed event records: {}", e.getMessage());
+        }
+    }
+
+    private record Key(String consumer, UUID eventId) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.smartcityfix.common.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJackson2MessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeTypeUtils;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter writing and reading the Smile binary format. Type ids, trusted packages
+ * and inferred listener types behave exactly as in the JSON converter.
+ *
+ * <p>The base class hands the body to Jackson as raw bytes only when its supported content
+ * type names a charset, and otherwise decodes it to a String first, which a binary parser
+ * cannot read. The charset is therefore declared here, and {@link #createMessage} writes the
+ * bytes and the plain Smile content type itself.
+ */
+public class SmileMessageConverter extends AbstractJackson2MessageConverter {
+
+    public SmileMessageConverter(ObjectMapper smileMapper, String... trustedPackages) {
+        super(smileMapper, MimeTypeUtils.parseMimeType(EventCodec.SMILE.getContentType() + ";charset=UTF-8"), trustedPackages);
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties, @Nullable Type genericType) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Failed to convert message content", e);
+        }
+
+        messageProperties.setContentType(EventCodec.SMILE.getContentType());
+        messageProperties.setContentLength(bytes.length);
+
+        // Same type header rules as the base class
+        JavaType type = objectMapper.constructType(genericType != null ? genericType : object.getClass());
+        if (genericType != null && !type.isContainerType() && Modifier.isAbstract(type.getRawClass().getModifiers())) {
+            type = objectMapper.constructType(object.getClass());
+        }
+        getJavaTypeMapper().fromJavaType(type, messageProperties);
+
+        return new Message(bytes, messageProperties);
+    }
+}
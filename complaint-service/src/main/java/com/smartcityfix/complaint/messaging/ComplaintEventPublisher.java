@@ -1,11 +1,12 @@
 package com.smartcityfix.complaint.messaging;
 
 import com.smartcityfix.common.event.ComplaintCreatedEvent;
+import com.smartcityfix.common.messaging.EventRoute;
+import com.smartcityfix.common.messaging.EventTopology;
 import com.smartcityfix.complaint.model.Complaint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -16,21 +17,7 @@ import java.util.UUID;
 public class ComplaintEventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
-
-    @Value("${app.rabbitmq.exchange}")
-    private String exchange;
-
-    @Value("${app.rabbitmq.routing-key.complaint-created}")
-    private String complaintCreatedRoutingKey;
-
-    @Value("${app.rabbitmq.routing-key.complaint-assigned}")
-    private String complaintAssignedRoutingKey;
-
-    @Value("${app.rabbitmq.routing-key.complaint-status-updated}")
-    private String complaintStatusUpdatedRoutingKey;
-
-    @Value("${app.rabbitmq.routing-key.complaint-resolved}")
-    private String complaintResolvedRoutingKey;
+    private final EventTopology eventTopology;
 
     public void publishComplaintCreatedEvent(Complaint complaint) {
         try {
@@ -50,7 +37,7 @@ public class ComplaintEventPublisher {
                     .reportedBy(complaint.getReportedBy())
                     .build();
 
-            rabbitTemplate.convertAndSend(exchange, complaintCreatedRoutingKey, event);
+            rabbitTemplate.convertAndSend(eventTopology.getExchange(), EventRoute.COMPLAINT_CREATED.getRoutingKey(), event);
             log.info("ComplaintCreatedEvent published successfully");
         } catch (Exception e) {
             log.error("Failed to publish ComplaintCreatedEvent", e);
@@ -3,6 +3,8 @@ package com.smartcityfix.department.messaging;
 import com.smartcityfix.common.event.ComplaintAssignedEvent;
 import com.smartcityfix.common.event.ComplaintCreatedEvent;
 import com.smartcityfix.common.event.ComplaintResolvedEvent;
+import com.smartcityfix.common.messaging.EventRoute;
+import com.smartcityfix.common.messaging.IdempotentListener;
 import com.smartcityfix.department.dto.DepartmentResponse;
 import com.smartcityfix.department.dto.LocationDto;
 import com.smartcityfix.department.dto.RoutingRequest;
@@ -12,10 +14,9 @@ import com.smartcityfix.department.service.DepartmentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @Component
@@ -24,15 +25,10 @@ import java.util.UUID;
 public class ComplaintEventListener {
 
     private final DepartmentService departmentService;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxRelay outboxRelay;
 
-    @Value("${app.rabbitmq.exchange}")
-    private String exchange;
-
-    @Value("${app.rabbitmq.routing-key.complaint-assigned}")
-    private String complaintAssignedRoutingKey;
-
-    @RabbitListener(queues = "${app.rabbitmq.queue.complaint-created}")
+    @IdempotentListener
+    @RabbitListener(queues = "#{@eventTopology.queue('complaint-created')}")
     public void handleComplaintCreatedEvent(ComplaintCreatedEvent event) {
         log.info("Received ComplaintCreatedEvent for complaint: {}", event.getComplaintId());
 
@@ -60,17 +56,19 @@ public class ComplaintEventListener {
                         event.getComplaintId(), routingResponse.getDepartmentId());
 
                 // Publish complaint assigned event - fixed type mismatch
-                publishComplaintAssignedEvent(event.getComplaintId().toString(), routingResponse.getDepartmentId());
+                publishComplaintAssignedEvent(event, routingResponse.getDepartmentId());
             } else {
                 log.warn("Could not find suitable department for complaint {}", event.getComplaintId());
                 // Handle fallback logic - could assign to a default department or escalate
             }
         } catch (Exception e) {
             log.error("Error processing ComplaintCreatedEvent", e);
+            throw e;
         }
     }
 
-    @RabbitListener(queues = "${app.rabbitmq.queue.complaint-resolved}")
+    @IdempotentListener
+    @RabbitListener(queues = "#{@eventTopology.queue('complaint-resolved')}")
     public void handleComplaintResolvedEvent(ComplaintResolvedEvent event) {
         log.info("Received ComplaintResolvedEvent for complaint: {}", event.getComplaintId());
 
@@ -82,26 +80,29 @@ public class ComplaintEventListener {
             }
         } catch (Exception e) {
             log.error("Error processing ComplaintResolvedEvent", e);
+            throw e;
         }
     }
 
-    private void publishComplaintAssignedEvent(String complaintIdStr, UUID departmentId) {
-        try {
-            UUID complaintId = UUID.fromString(complaintIdStr);
-
-            // Get department name
-            DepartmentResponse department = departmentService.getDepartmentById(departmentId);
-
-            ComplaintAssignedEvent event = new ComplaintAssignedEvent(
-                    complaintId,
-                    departmentId,
-                    department.getName()
-            );
-
-            log.info("Publishing ComplaintAssignedEvent for complaint: {}", complaintId);
-            rabbitTemplate.convertAndSend(exchange, complaintAssignedRoutingKey, event);
-        } catch (Exception e) {
-            log.error("Error publishing ComplaintAssignedEvent", e);
-        }
+    /**
+     * Stores the assigned event in the outbox within the listener's transaction, so it is
+     * relayed if and only if the assignment and workload increment commit. Its id is derived
+     * from the created event's, so consumers can de-duplicate it even if it is produced twice.
+     */
+    private void publishComplaintAssignedEvent(ComplaintCreatedEvent createdEvent, UUID departmentId) {
+        // Get department name
+        DepartmentResponse department = departmentService.getDepartmentById(departmentId);
+
+        ComplaintAssignedEvent event = new ComplaintAssignedEvent(
+                createdEvent.getComplaintId(),
+                departmentId,
+                department.getName(),
+                createdEvent.getReportedBy()
+        );
+        event.setEventId(UUID.nameUUIDFromBytes(
+                ("COMPLAINT_ASSIGNED:" + createdEvent.getEventId()).getBytes(StandardCharsets.UTF_8)));
+
+        log.info("Enqueueing ComplaintAssignedEvent for complaint: {}", createdEvent.getComplaintId());
+        outboxRelay.enqueue(event, EventRoute.COMPLAINT_ASSIGNED.getRoutingKey());
     }
-}
\ No newline at end of file
+}
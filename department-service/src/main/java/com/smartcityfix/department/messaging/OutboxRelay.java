@@ -0,0 +1,133 @@
+package com.smartcityfix.department.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcityfix.common.event.BaseEvent;
+import com.smartcityfix.common.messaging.EventTopology;
+import com.smartcityfix.department.model.OutboxEvent;
+import com.smartcityfix.department.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox for domain events. {@link #enqueue} must run inside the transaction
+ * that makes the change, so the event is stored if and only if the change commits; the
+ * scheduled relay then publishes pending rows in creation order. A row is marked published
+ * only once the broker has confirmed it, so delivery is at-least-once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final EventTopology eventTopology;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention:P7D}")
+    private Duration retention;
+
+    @Value("${app.outbox.confirm-timeout:PT5S}")
+    private Duration confirmTimeout;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(BaseEvent event, String routingKey) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .id(event.getEventId())
+                    .eventType(event.getClass().getName())
+                    .routingKey(routingKey)
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+            log.debug("Stored {} {} in outbox", event.getEventType(), event.getEventId());
+        } catch (Exception e) {
+            log.error("Failed to store {} in outbox", event.getEventType(), e);
+            throw new IllegalStateException("Could not store event in outbox", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    @Transactional
+    public void relayPending() {
+        List<OutboxEvent> pending = outboxEventRepository.lockPending(batchSize);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Publish the whole batch first, then wait for the broker confirms, so the round
+        // trips overlap instead of costing one confirm wait per event
+        List<CorrelationData> confirms = new ArrayList<>(pending.size());
+        for (OutboxEvent outboxEvent : pending) {
+            try {
+                CorrelationData correlation = new CorrelationData(outboxEvent.getId().toString());
+                rabbitTemplate.convertAndSend(eventTopology.getExchange(), outboxEvent.getRoutingKey(),
+                        readEvent(outboxEvent), correlation);
+                confirms.add(correlation);
+            } catch (Exception e) {
+                log.error("Failed to relay outbox event {}", outboxEvent.getId(), e);
+                break;
+            }
+        }
+
+        int published = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            OutboxEvent outboxEvent = pending.get(i);
+            if (i >= confirms.size() || !isConfirmed(confirms.get(i))) {
+                // Stop here so later events are not marked ahead of this one; they are resent next run
+                outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+                log.warn("Outbox event {} not confirmed by the broker (attempt {})", outboxEvent.getId(), outboxEvent.getAttempts());
+                break;
+            }
+            outboxEvent.setPublishedAt(LocalDateTime.now());
+            published++;
+        }
+
+        log.info("Relayed {} of {} pending outbox events", published, pending.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deletePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} published outbox events older than {}", deleted, retention);
+        }
+    }
+
+    private boolean isConfirmed(CorrelationData correlation) {
+        try {
+            CorrelationData.Confirm confirm = correlation.getFuture().get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            // An unroutable event (no subscriber bound yet) is still acked and is not retried
+            return confirm.isAck();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private Object readEvent(OutboxEvent outboxEvent) throws Exception {
+        Class<?> type = Class.forName(outboxEvent.getEventType());
+        if (!BaseEvent.class.isAssignableFrom(type)) {
+            throw new IllegalStateException("Unexpected outbox event type: " + outboxEvent.getEventType());
+        }
+        return objectMapper.readValue(outboxEvent.getPayload(), type);
+    }
+}
@@ -1,6 +1,7 @@
 package com.smartcityfix.department.service.impl;
 
 import com.smartcityfix.common.exception.ResourceNotFoundException;
+import com.smartcityfix.common.messaging.CacheInvalidationPublisher;
 import com.smartcityfix.department.dto.*;
 import com.smartcityfix.department.model.ComplaintCategory;
 import com.smartcityfix.department.model.Department;
@@ -30,7 +31,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DepartmentServiceImpl implements DepartmentService {
 
+    // Gateway-cached department reads; workload changes are left to the cache TTL
+    private static final String CACHED_PATHS = "/api/departments/**";
+
     private final DepartmentRepository departmentRepository;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
 
     @Value("${app.routing.max-distance-km:5.0}")
     private double maxDistanceKm;
@@ -69,6 +74,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
             Department savedDepartment = departmentRepository.save(department);
             log.info("Department created successfully with id: {}", savedDepartment.getId());
+            cacheInvalidationPublisher.invalidate(CACHED_PATHS);
 
             return mapToDepartmentResponse(savedDepartment);
         } catch (IllegalArgumentException e) {
@@ -186,6 +192,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
             Department updatedDepartment = departmentRepository.save(department);
             log.info("Department updated successfully: {}", updatedDepartment.getId());
+            cacheInvalidationPublisher.invalidate(CACHED_PATHS);
 
             return mapToDepartmentResponse(updatedDepartment);
         } catch (ResourceNotFoundException | IllegalArgumentException e) {
@@ -208,6 +215,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
             departmentRepository.deleteById(id);
             log.info("Department deleted successfully: {}", id);
+            cacheInvalidationPublisher.invalidate(CACHED_PATHS);
         } catch (ResourceNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -0,0 +1,9 @@
+-- Event ids already handled by each listener, for de-duplicating broker redeliveries
+CREATE TABLE processed_events (
+    consumer VARCHAR(200) NOT NULL,
+    event_id UUID NOT NULL,
+    processed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (consumer, event_id)
+);
+
+CREATE INDEX idx_processed_events_processed_at ON processed_events(processed_at);
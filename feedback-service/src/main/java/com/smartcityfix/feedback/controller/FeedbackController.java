@@ -10,6 +10,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -55,25 +56,27 @@ public class FeedbackController {
     }
 
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get user feedbacks", description = "Returns feedbacks submitted by the specified user")
+    @Operation(summary = "Get user feedbacks", description = "Returns feedbacks submitted by the specified user; set includeResponses=false to return only response counts")
     public ResponseEntity<ApiResponse<Page<FeedbackResponse>>> getUserFeedbacks(
             @PathVariable UUID userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeResponses) {
         log.info("Fetching feedbacks for user: {}, page: {}, size: {}", userId, page, size);
-        Page<FeedbackResponse> response = feedbackService.getUserFeedbacks(userId, page, size);
+        Page<FeedbackResponse> response = feedbackService.getUserFeedbacks(userId, page, size, includeResponses);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @GetMapping("/department/{departmentId}")
-    @Operation(summary = "Get department feedbacks", description = "Returns feedbacks for the specified department")
+    @Operation(summary = "Get department feedbacks", description = "Returns feedbacks for the specified department; set includeResponses=false to return only response counts")
     public ResponseEntity<ApiResponse<Page<FeedbackResponse>>> getDepartmentFeedbacks(
             @PathVariable UUID departmentId,
             @RequestParam(required = false) FeedbackStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeResponses) {
         log.info("Fetching feedbacks for department: {}, status: {}, page: {}, size: {}", departmentId, status, page, size);
-        Page<FeedbackResponse> response = feedbackService.getDepartmentFeedbacks(departmentId, status, page, size);
+        Page<FeedbackResponse> response = feedbackService.getDepartmentFeedbacks(departmentId, status, page, size, includeResponses);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -85,6 +88,25 @@ public class FeedbackController {
         return ResponseEntity.ok(ApiResponse.success("Feedback status updated successfully", response));
     }
 
+    @PutMapping("/status/bulk")
+    @Operation(summary = "Bulk update feedback status", description = "Moderates a list of feedbacks at once and reconciles each affected department rating")
+    public ResponseEntity<ApiResponse<BulkFeedbackStatusUpdateResponse>> bulkUpdateFeedbackStatus(
+            @Valid @RequestBody BulkFeedbackStatusUpdateRequest request) {
+        log.info("Bulk updating status of {} feedbacks to {}", request.getFeedbackIds().size(), request.getStatus());
+        BulkFeedbackStatusUpdateResponse response = feedbackService.bulkUpdateFeedbackStatus(request);
+        return ResponseEntity.ok(ApiResponse.success("Feedback statuses updated successfully", response));
+    }
+
+    @GetMapping("/moderation/pending")
+    @Operation(summary = "Get pending moderation queue", description = "Returns pending feedbacks, newest first, paged by an opaque cursor")
+    public ResponseEntity<ApiResponse<FeedbackQueuePage>> getPendingFeedbackQueue(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Fetching pending feedback queue, cursor: {}, size: {}", cursor, size);
+        FeedbackQueuePage response = feedbackService.getPendingFeedbackQueue(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PostMapping("/responses")
     @Operation(summary = "Add feedback response", description = "Adds a response to a feedback")
     public ResponseEntity<ApiResponse<FeedbackResponseDto>> addFeedbackResponse(@Valid @RequestBody FeedbackResponseRequest request) {
@@ -111,12 +133,27 @@ public class FeedbackController {
         return ResponseEntity.ok(ApiResponse.success(rating));
     }
 
+    @GetMapping("/ratings/department/{departmentId}/window")
+    @Operation(summary = "Get department rating window", description = "Returns rating statistics for the specified department over the last N days (e.g. 7, 30, 90)")
+    public ResponseEntity<ApiResponse<DepartmentRatingWindowDto>> getDepartmentRatingWindow(
+            @PathVariable UUID departmentId,
+            @RequestParam(defaultValue = "30") int days) {
+        log.info("Fetching {}-day rating window for department: {}", days, departmentId);
+        DepartmentRatingWindowDto rating = feedbackService.getDepartmentRatingWindow(departmentId, days);
+        return ResponseEntity.ok(ApiResponse.success(rating));
+    }
+
     @GetMapping("/ratings/departments")
-    @Operation(summary = "Get all department ratings", description = "Returns rating statistics for all departments")
+    @Operation(summary = "Get all department ratings", description = "Returns rating statistics for all departments; supports If-None-Match")
     public ResponseEntity<ApiResponse<List<DepartmentRatingDto>>> getAllDepartmentRatings() {
-        log.info("Fetching all department ratings");
-        List<DepartmentRatingDto> ratings = feedbackService.getAllDepartmentRatings();
-        return ResponseEntity.ok(ApiResponse.success(ratings));
+        log.debug("Fetching all department ratings");
+        DepartmentLeaderboard leaderboard = feedbackService.getDepartmentLeaderboard();
+
+        // A matching If-None-Match is answered with 304 and no body by Spring MVC
+        return ResponseEntity.ok()
+                .eTag(leaderboard.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success(leaderboard.getRatings()));
     }
 
     @PostMapping("/ratings/department/{departmentId}/recalculate")
@@ -126,4 +163,12 @@ public class FeedbackController {
         feedbackService.recalculateDepartmentRating(departmentId);
         return ResponseEntity.ok(ApiResponse.successMessage("Department rating recalculated successfully"));
     }
+
+    @PostMapping("/ratings/reconcile")
+    @Operation(summary = "Reconcile all department ratings", description = "Rebuilds rating statistics for all departments from approved feedback")
+    public ResponseEntity<ApiResponse<Integer>> reconcileAllDepartmentRatings() {
+        log.info("Reconciling all department ratings");
+        int reconciled = feedbackService.reconcileAllDepartmentRatings();
+        return ResponseEntity.ok(ApiResponse.success("Department ratings reconciled successfully", reconciled));
+    }
 }
\ No newline at end of file
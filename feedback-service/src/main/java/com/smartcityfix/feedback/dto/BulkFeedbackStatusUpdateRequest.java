@@ -0,0 +1,27 @@
+package com.smartcityfix.feedback.dto;
+
+import com.smartcityfix.feedback.model.FeedbackStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFeedbackStatusUpdateRequest {
+
+    @NotEmpty(message = "Feedback IDs are required")
+    @Size(max = 1000, message = "At most 1000 feedbacks can be moderated at once")
+    private List<UUID> feedbackIds;
+
+    @NotNull(message = "Status is required")
+    private FeedbackStatus status;
+}
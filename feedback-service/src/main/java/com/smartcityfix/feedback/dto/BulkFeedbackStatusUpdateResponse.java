@@ -0,0 +1,24 @@
+package com.smartcityfix.feedback.dto;
+
+import com.smartcityfix.feedback.model.FeedbackStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFeedbackStatusUpdateResponse {
+
+    private FeedbackStatus status;
+    private int requested;
+    private int updated;
+    private List<UUID> notFound;
+    private Set<UUID> reconciledDepartments;
+}
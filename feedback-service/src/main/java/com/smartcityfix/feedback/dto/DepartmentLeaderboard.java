@@ -0,0 +1,18 @@
+package com.smartcityfix.feedback.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable snapshot of all department ratings ordered by average rating, together with the
+ * ETag that identifies its content.
+ */
+@Value
+public class DepartmentLeaderboard {
+
+    List<DepartmentRatingDto> ratings;
+    String etag;
+    LocalDateTime generatedAt;
+}
@@ -0,0 +1,28 @@
+package com.smartcityfix.feedback.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentRatingWindowDto {
+
+    private UUID departmentId;
+    private int days;
+    private LocalDate from;
+    private LocalDate to;
+    private Double averageRating;
+    private Integer totalRatings;
+    private Integer rating1Count;
+    private Integer rating2Count;
+    private Integer rating3Count;
+    private Integer rating4Count;
+    private Integer rating5Count;
+}
@@ -0,0 +1,22 @@
+package com.smartcityfix.feedback.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackQueuePage {
+
+    private List<FeedbackResponse> items;
+
+    /**
+     * Opaque cursor for the next page, or {@code null} when the queue is exhausted.
+     */
+    private String nextCursor;
+}
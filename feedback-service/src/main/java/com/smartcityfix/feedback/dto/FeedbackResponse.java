@@ -27,4 +27,5 @@ public class FeedbackResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<FeedbackResponseDto> responses;
+    private Integer responseCount;
 }
\ No newline at end of file
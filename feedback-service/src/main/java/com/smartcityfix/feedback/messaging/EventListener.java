@@ -14,7 +14,7 @@ public class EventListener {
 
     private final FeedbackService feedbackService;
 
-    @RabbitListener(queues = "${app.rabbitmq.queue.complaint-resolved}")
+    @RabbitListener(queues = "#{@eventTopology.queue('complaint-resolved')}")
     public void handleComplaintResolvedEvent(ComplaintResolvedEvent event) {
         log.info("Received ComplaintResolvedEvent for complaint: {}", event.getComplaintId());
 
@@ -24,6 +24,7 @@ public class EventListener {
             log.info("Complaint {} has been resolved. User can now provide feedback.", event.getComplaintId());
         } catch (Exception e) {
             log.error("Error processing ComplaintResolvedEvent", e);
+            throw e;
         }
     }
 }
\ No newline at end of file
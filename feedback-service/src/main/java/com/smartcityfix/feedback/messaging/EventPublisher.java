@@ -1,10 +1,11 @@
 package com.smartcityfix.feedback.messaging;
 
 import com.smartcityfix.common.event.FeedbackCreatedEvent;
+import com.smartcityfix.common.messaging.EventRoute;
+import com.smartcityfix.common.messaging.EventTopology;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -15,12 +16,7 @@ import java.util.UUID;
 public class EventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
-
-    @Value("${app.rabbitmq.exchange}")
-    private String exchange;
-
-    @Value("${app.rabbitmq.routing-key.feedback-created}")
-    private String feedbackCreatedRoutingKey;
+    private final EventTopology eventTopology;
 
     public void publishFeedbackCreatedEvent(UUID feedbackId, UUID complaintId, UUID userId, UUID departmentId, Integer rating) {
         try {
@@ -31,7 +27,7 @@ public class EventPublisher {
             event.setDepartmentId(departmentId);
             event.setRating(rating);
 
-            rabbitTemplate.convertAndSend(exchange, feedbackCreatedRoutingKey, event);
+            rabbitTemplate.convertAndSend(eventTopology.getExchange(), EventRoute.FEEDBACK_CREATED.getRoutingKey(), event);
             log.info("Published FeedbackCreatedEvent for feedback: {}", feedbackId);
         } catch (Exception e) {
             log.error("Error publishing FeedbackCreatedEvent", e);
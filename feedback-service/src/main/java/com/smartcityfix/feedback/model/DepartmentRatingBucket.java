@@ -0,0 +1,61 @@
+package com.smartcityfix.feedback.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Histogram of approved ratings for one department on one day, keyed by the feedback's
+ * submission date.
+ */
+@Entity
+@Table(name = "department_rating_buckets")
+@IdClass(DepartmentRatingBucket.BucketId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentRatingBucket {
+
+    @Id
+    @Column(name = "department_id", nullable = false)
+    private UUID departmentId;
+
+    @Id
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "rating1_count", nullable = false)
+    @Builder.Default
+    private Integer rating1Count = 0;
+
+    @Column(name = "rating2_count", nullable = false)
+    @Builder.Default
+    private Integer rating2Count = 0;
+
+    @Column(name = "rating3_count", nullable = false)
+    @Builder.Default
+    private Integer rating3Count = 0;
+
+    @Column(name = "rating4_count", nullable = false)
+    @Builder.Default
+    private Integer rating4Count = 0;
+
+    @Column(name = "rating5_count", nullable = false)
+    @Builder.Default
+    private Integer rating5Count = 0;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BucketId implements Serializable {
+        private UUID departmentId;
+        private LocalDate bucketDate;
+    }
+}
@@ -0,0 +1,88 @@
+package com.smartcityfix.feedback.repository;
+
+import com.smartcityfix.feedback.model.DepartmentRatingBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Repository
+public interface DepartmentRatingBucketRepository extends JpaRepository<DepartmentRatingBucket, DepartmentRatingBucket.BucketId> {
+
+    @Modifying
+    @Query(value = "INSERT INTO department_rating_buckets " +
+            "(department_id, bucket_date, rating1_count, rating2_count, rating3_count, rating4_count, rating5_count) " +
+            "VALUES (:departmentId, :bucketDate, " +
+            "CASE WHEN :rating = 1 THEN :delta ELSE 0 END, " +
+            "CASE WHEN :rating = 2 THEN :delta ELSE 0 END, " +
+            "CASE WHEN :rating = 3 THEN :delta ELSE 0 END, " +
+            "CASE WHEN :rating = 4 THEN :delta ELSE 0 END, " +
+            "CASE WHEN :rating = 5 THEN :delta ELSE 0 END) " +
+            "ON CONFLICT (department_id, bucket_date) DO UPDATE SET " +
+            "rating1_count = department_rating_buckets.rating1_count + EXCLUDED.rating1_count, " +
+            "rating2_count = department_rating_buckets.rating2_count + EXCLUDED.rating2_count, " +
+            "rating3_count = department_rating_buckets.rating3_count + EXCLUDED.rating3_count, " +
+            "rating4_count = department_rating_buckets.rating4_count + EXCLUDED.rating4_count, " +
+            "rating5_count = department_rating_buckets.rating5_count + EXCLUDED.rating5_count", nativeQuery = true)
+    int applyRatingDelta(@Param("departmentId") UUID departmentId,
+                         @Param("bucketDate") LocalDate bucketDate,
+                         @Param("rating") int rating,
+                         @Param("delta") int delta);
+
+    @Query("SELECT COALESCE(SUM(b.rating1Count), 0) AS rating1Count, COALESCE(SUM(b.rating2Count), 0) AS rating2Count, " +
+            "COALESCE(SUM(b.rating3Count), 0) AS rating3Count, COALESCE(SUM(b.rating4Count), 0) AS rating4Count, " +
+            "COALESCE(SUM(b.rating5Count), 0) AS rating5Count " +
+            "FROM DepartmentRatingBucket b WHERE b.departmentId = :departmentId AND b.bucketDate >= :from")
+    WindowTotals sumSince(@Param("departmentId") UUID departmentId, @Param("from") LocalDate from);
+
+    @Modifying
+    @Query("DELETE FROM DepartmentRatingBucket b WHERE b.departmentId = :departmentId")
+    int deleteByDepartmentId(@Param("departmentId") UUID departmentId);
+
+    @Modifying
+    @Query("DELETE FROM DepartmentRatingBucket b")
+    int deleteAllBuckets();
+
+    String REBUILD_SELECT = "INSERT INTO department_rating_buckets " +
+            "(department_id, bucket_date, rating1_count, rating2_count, rating3_count, rating4_count, rating5_count) " +
+            "SELECT department_id, CAST(created_at AS DATE), " +
+            "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) " +
+            "FROM feedbacks WHERE status = 'APPROVED' ";
+
+    /**
+     * Rebuilds the buckets of one department from approved feedback. Existing buckets of the
+     * department must be deleted first.
+     */
+    @Modifying
+    @Query(value = REBUILD_SELECT + "AND department_id = :departmentId " +
+            "GROUP BY department_id, CAST(created_at AS DATE)", nativeQuery = true)
+    int rebuildFromFeedback(@Param("departmentId") UUID departmentId);
+
+    /**
+     * Rebuilds the buckets of all departments from approved feedback. Existing buckets must be
+     * deleted first.
+     */
+    @Modifying
+    @Query(value = REBUILD_SELECT + "GROUP BY department_id, CAST(created_at AS DATE)", nativeQuery = true)
+    int rebuildAllFromFeedback();
+
+    interface WindowTotals {
+        Long getRating1Count();
+
+        Long getRating2Count();
+
+        Long getRating3Count();
+
+        Long getRating4Count();
+
+        Long getRating5Count();
+    }
+}
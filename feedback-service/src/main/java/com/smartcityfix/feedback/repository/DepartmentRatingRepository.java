@@ -1,11 +1,16 @@
 package com.smartcityfix.feedback.repository;
 
 import com.smartcityfix.feedback.model.DepartmentRating;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -13,4 +18,48 @@ public interface DepartmentRatingRepository extends JpaRepository<DepartmentRati
 
     @Query("SELECT dr FROM DepartmentRating dr ORDER BY dr.averageRating DESC")
     List<DepartmentRating> findAllOrderByAverageRatingDesc();
+
+    @Modifying
+    @Query(value = "INSERT INTO department_ratings (department_id) VALUES (:departmentId) " +
+            "ON CONFLICT (department_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("departmentId") UUID departmentId);
+
+    @Modifying
+    @Query(value = "INSERT INTO department_ratings (department_id) " +
+            "SELECT DISTINCT department_id FROM feedbacks WHERE status = 'APPROVED' " +
+            "ON CONFLICT (department_id) DO NOTHING", nativeQuery = true)
+    int insertMissingForApprovedFeedback();
+
+    /**
+     * Loads the rating with a row lock held until the transaction ends. Concurrent
+     * {@link #applyRatingDelta} calls wait for it, so a rebuild from counts cannot overwrite them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT dr FROM DepartmentRating dr WHERE dr.departmentId = :departmentId")
+    Optional<DepartmentRating> findByIdForUpdate(@Param("departmentId") UUID departmentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT dr FROM DepartmentRating dr ORDER BY dr.departmentId")
+    List<DepartmentRating> findAllForUpdate();
+
+    /**
+     * Adds {@code delta} to the histogram bucket of {@code rating} and re-derives the total and the
+     * average from the histogram in the same statement, so concurrent deltas never interleave.
+     */
+    @Modifying
+    @Query(value = "UPDATE department_ratings SET " +
+            "rating1_count = rating1_count + CASE WHEN :rating = 1 THEN :delta ELSE 0 END, " +
+            "rating2_count = rating2_count + CASE WHEN :rating = 2 THEN :delta ELSE 0 END, " +
+            "rating3_count = rating3_count + CASE WHEN :rating = 3 THEN :delta ELSE 0 END, " +
+            "rating4_count = rating4_count + CASE WHEN :rating = 4 THEN :delta ELSE 0 END, " +
+            "rating5_count = rating5_count + CASE WHEN :rating = 5 THEN :delta ELSE 0 END, " +
+            "total_ratings = total_ratings + :delta, " +
+            "average_rating = CASE WHEN total_ratings + :delta <= 0 THEN 0.0 ELSE " +
+            "CAST(rating1_count + 2 * rating2_count + 3 * rating3_count + 4 * rating4_count + 5 * rating5_count " +
+            "+ :rating * :delta AS DOUBLE PRECISION) / (total_ratings + :delta) END, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE department_id = :departmentId", nativeQuery = true)
+    int applyRatingDelta(@Param("departmentId") UUID departmentId,
+                         @Param("rating") int rating,
+                         @Param("delta") int delta);
 }
\ No newline at end of file
@@ -2,13 +2,18 @@ package com.smartcityfix.feedback.repository;
 
 import com.smartcityfix.feedback.model.Feedback;
 import com.smartcityfix.feedback.model.FeedbackStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,14 +29,58 @@ public interface FeedbackRepository extends JpaRepository<Feedback, UUID> {
 
     Optional<Feedback> findByComplaintIdAndUserId(UUID complaintId, UUID userId);
 
-    @Query("SELECT AVG(f.rating) FROM Feedback f WHERE f.departmentId = :departmentId AND f.status = 'APPROVED'")
-    Double findAverageRatingByDepartmentId(@Param("departmentId") UUID departmentId);
+    /**
+     * Loads the feedback with a row lock held until the transaction ends, so concurrent
+     * status changes of the same feedback are applied one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Feedback f WHERE f.id = :id")
+    Optional<Feedback> findByIdForUpdate(@Param("id") UUID id);
 
-    @Query("SELECT COUNT(f) FROM Feedback f WHERE f.departmentId = :departmentId AND f.status = 'APPROVED' AND f.rating = :rating")
-    Integer countByDepartmentIdAndRating(@Param("departmentId") UUID departmentId, @Param("rating") Integer rating);
+    @Query("SELECT f.departmentId AS departmentId, f.rating AS rating, COUNT(f) AS count FROM Feedback f " +
+            "WHERE f.departmentId = :departmentId AND f.status = 'APPROVED' GROUP BY f.departmentId, f.rating")
+    List<RatingCount> countApprovedByRating(@Param("departmentId") UUID departmentId);
 
-    @Query("SELECT COUNT(f) FROM Feedback f WHERE f.departmentId = :departmentId AND f.status = 'APPROVED'")
-    Integer countByDepartmentId(@Param("departmentId") UUID departmentId);
+    @Query("SELECT f.departmentId AS departmentId, f.rating AS rating, COUNT(f) AS count FROM Feedback f " +
+            "WHERE f.status = 'APPROVED' GROUP BY f.departmentId, f.rating")
+    List<RatingCount> countAllApprovedByRating();
 
-    List<Feedback> findByStatusOrderByCreatedAtDesc(FeedbackStatus status);
+    List<Feedback> findByStatusOrderByCreatedAtDescIdDesc(FeedbackStatus status, Pageable pageable);
+
+    @Query("SELECT f FROM Feedback f WHERE f.status = :status " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Feedback> findByStatusAfterCursor(@Param("status") FeedbackStatus status,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           Pageable pageable);
+
+    /**
+     * Reads the statuses with the rows locked until the transaction ends, in id order so two
+     * bulk updates cannot deadlock, and so no single status change slips in before the update.
+     */
+    @Query(value = "SELECT id AS id, department_id AS departmentId, status AS status FROM feedbacks " +
+            "WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<FeedbackStatusView> lockStatusViewsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Feedback f SET f.status = :status, f.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE f.id IN :ids AND f.status <> :status")
+    int updateStatusByIdIn(@Param("ids") Collection<UUID> ids, @Param("status") FeedbackStatus status);
+
+    interface FeedbackStatusView {
+        UUID getId();
+
+        UUID getDepartmentId();
+
+        FeedbackStatus getStatus();
+    }
+
+    interface RatingCount {
+        UUID getDepartmentId();
+
+        Integer getRating();
+
+        Long getCount();
+    }
 }
\ No newline at end of file
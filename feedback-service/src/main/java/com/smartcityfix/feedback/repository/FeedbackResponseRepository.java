@@ -2,8 +2,11 @@ package com.smartcityfix.feedback.repository;
 
 import com.smartcityfix.feedback.model.FeedbackResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +14,16 @@ import java.util.UUID;
 public interface FeedbackResponseRepository extends JpaRepository<FeedbackResponse, UUID> {
 
     List<FeedbackResponse> findByFeedbackId(UUID feedbackId);
+
+    List<FeedbackResponse> findByFeedbackIdInOrderByCreatedAtAsc(Collection<UUID> feedbackIds);
+
+    @Query("SELECT r.feedbackId AS feedbackId, COUNT(r) AS count FROM FeedbackResponse r " +
+            "WHERE r.feedbackId IN :feedbackIds GROUP BY r.feedbackId")
+    List<ResponseCount> countByFeedbackIds(@Param("feedbackIds") Collection<UUID> feedbackIds);
+
+    interface ResponseCount {
+        UUID getFeedbackId();
+
+        Long getCount();
+    }
 }
\ No newline at end of file
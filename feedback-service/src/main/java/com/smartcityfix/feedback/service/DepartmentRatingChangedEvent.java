@@ -0,0 +1,17 @@
+package com.smartcityfix.feedback.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Published in-process whenever a department rating is written. A {@code null} department ID
+ * means that ratings of several departments changed.
+ */
+@Data
+@AllArgsConstructor
+public class DepartmentRatingChangedEvent {
+
+    private UUID departmentId;
+}
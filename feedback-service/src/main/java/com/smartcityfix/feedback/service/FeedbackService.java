@@ -15,19 +15,29 @@ public interface FeedbackService {
 
     FeedbackResponse getFeedbackByComplaintIdAndUserId(UUID complaintId, UUID userId);
 
-    Page<FeedbackResponse> getUserFeedbacks(UUID userId, int page, int size);
+    Page<FeedbackResponse> getUserFeedbacks(UUID userId, int page, int size, boolean includeResponses);
 
-    Page<FeedbackResponse> getDepartmentFeedbacks(UUID departmentId, FeedbackStatus status, int page, int size);
+    Page<FeedbackResponse> getDepartmentFeedbacks(UUID departmentId, FeedbackStatus status, int page, int size, boolean includeResponses);
 
     FeedbackResponse updateFeedbackStatus(FeedbackStatusUpdateRequest request);
 
+    BulkFeedbackStatusUpdateResponse bulkUpdateFeedbackStatus(BulkFeedbackStatusUpdateRequest request);
+
+    FeedbackQueuePage getPendingFeedbackQueue(String cursor, int size);
+
     FeedbackResponseDto addFeedbackResponse(FeedbackResponseRequest request);
 
     List<FeedbackResponseDto> getFeedbackResponses(UUID feedbackId);
 
     DepartmentRatingDto getDepartmentRating(UUID departmentId);
 
+    DepartmentRatingWindowDto getDepartmentRatingWindow(UUID departmentId, int days);
+
     List<DepartmentRatingDto> getAllDepartmentRatings();
 
+    DepartmentLeaderboard getDepartmentLeaderboard();
+
     void recalculateDepartmentRating(UUID departmentId);
+
+    int reconcileAllDepartmentRatings();
 }
\ No newline at end of file
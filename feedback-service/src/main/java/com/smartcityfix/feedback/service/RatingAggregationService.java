@@ -0,0 +1,34 @@
+package com.smartcityfix.feedback.service;
+
+import com.smartcityfix.feedback.dto.DepartmentRatingWindowDto;
+import com.smartcityfix.feedback.model.DepartmentRating;
+import com.smartcityfix.feedback.model.Feedback;
+import com.smartcityfix.feedback.model.FeedbackStatus;
+
+import java.util.UUID;
+
+public interface RatingAggregationService {
+
+    /**
+     * Applies the +1/-1 histogram delta implied by moving {@code feedback} from
+     * {@code previousStatus} to its current status. Only APPROVED feedback counts.
+     */
+    void applyStatusChange(Feedback feedback, FeedbackStatus previousStatus);
+
+    /**
+     * Rebuilds the rating of one department from its approved feedback.
+     */
+    DepartmentRating reconcile(UUID departmentId);
+
+    /**
+     * Rebuilds the ratings of all departments from approved feedback.
+     *
+     * @return number of department ratings written
+     */
+    int reconcileAll();
+
+    /**
+     * Sums the daily rating buckets of the last {@code days} days, today included.
+     */
+    DepartmentRatingWindowDto getRatingWindow(UUID departmentId, int days);
+}
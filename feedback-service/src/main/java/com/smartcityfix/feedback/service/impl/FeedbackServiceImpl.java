@@ -1,6 +1,8 @@
 package com.smartcityfix.feedback.service.impl;
 
+import com.smartcityfix.common.exception.BadRequestException;
 import com.smartcityfix.common.exception.ResourceNotFoundException;
+import com.smartcityfix.common.messaging.CacheInvalidationPublisher;
 import com.smartcityfix.feedback.dto.*;
 import com.smartcityfix.feedback.messaging.EventPublisher;
 import com.smartcityfix.feedback.model.DepartmentRating;
@@ -10,20 +12,30 @@ import com.smartcityfix.feedback.model.FeedbackStatus;
 import com.smartcityfix.feedback.repository.DepartmentRatingRepository;
 import com.smartcityfix.feedback.repository.FeedbackRepository;
 import com.smartcityfix.feedback.repository.FeedbackResponseRepository;
+import com.smartcityfix.feedback.service.DepartmentRatingChangedEvent;
 import com.smartcityfix.feedback.service.FeedbackService;
+import com.smartcityfix.feedback.service.RatingAggregationService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.util.List;
-import java.util.UUID;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,10 +43,21 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FeedbackServiceImpl implements FeedbackService {
 
+    private static final int MAX_QUEUE_PAGE_SIZE = 200;
+    private static final int MAX_RATING_WINDOW_DAYS = 365;
+
     private final FeedbackRepository feedbackRepository;
     private final FeedbackResponseRepository feedbackResponseRepository;
     private final DepartmentRatingRepository departmentRatingRepository;
     private final EventPublisher eventPublisher;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final RatingAggregationService ratingAggregationService;
+
+    private final AtomicBoolean leaderboardDirty = new AtomicBoolean(false);
+    private volatile DepartmentLeaderboard leaderboard;
+
+    @Value("${app.ratings.leaderboard-max-age:PT1M}")
+    private Duration leaderboardMaxAge;
 
     @Override
     @Transactional
@@ -122,14 +145,14 @@ public class FeedbackServiceImpl implements FeedbackService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<com.smartcityfix.feedback.dto.FeedbackResponse> getUserFeedbacks(UUID userId, int page, int size) {
+    public Page<com.smartcityfix.feedback.dto.FeedbackResponse> getUserFeedbacks(UUID userId, int page, int size, boolean includeResponses) {
         log.info("Fetching feedbacks for user: {}, page: {}, size: {}", userId, page, size);
 
         try {
             Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
             Page<Feedback> feedbacks = feedbackRepository.findByUserId(userId, pageable);
 
-            return feedbacks.map(this::mapToFeedbackResponse);
+            return mapToFeedbackResponsePage(feedbacks, includeResponses);
         } catch (Exception e) {
             log.error("Error fetching feedbacks for user: {}", userId, e);
             throw e;
@@ -138,7 +161,7 @@ public class FeedbackServiceImpl implements FeedbackService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<com.smartcityfix.feedback.dto.FeedbackResponse> getDepartmentFeedbacks(UUID departmentId, FeedbackStatus status, int page, int size) {
+    public Page<com.smartcityfix.feedback.dto.FeedbackResponse> getDepartmentFeedbacks(UUID departmentId, FeedbackStatus status, int page, int size, boolean includeResponses) {
         log.info("Fetching feedbacks for department: {}, status: {}, page: {}, size: {}", departmentId, status, page, size);
 
         try {
@@ -151,7 +174,7 @@ public class FeedbackServiceImpl implements FeedbackService {
                 feedbacks = feedbackRepository.findByDepartmentId(departmentId, pageable);
             }
 
-            return feedbacks.map(this::mapToFeedbackResponse);
+            return mapToFeedbackResponsePage(feedbacks, includeResponses);
         } catch (Exception e) {
             log.error("Error fetching feedbacks for department: {}", departmentId, e);
             throw e;
@@ -164,17 +187,18 @@ public class FeedbackServiceImpl implements FeedbackService {
         log.info("Updating feedback status: {}", request);
 
         try {
-            Feedback feedback = feedbackRepository.findById(request.getFeedbackId())
+            // Locked, so two moderators changing the same feedback cannot both see the old
+            // status and move the department rating twice
+            Feedback feedback = feedbackRepository.findByIdForUpdate(request.getFeedbackId())
                     .orElseThrow(() -> new ResourceNotFoundException("Feedback", "id", request.getFeedbackId()));
 
+            FeedbackStatus previousStatus = feedback.getStatus();
             feedback.setStatus(request.getStatus());
             Feedback updatedFeedback = feedbackRepository.save(feedback);
             log.info("Updated feedback status to: {}", request.getStatus());
 
-            // If feedback is approved or rejected, recalculate department rating
-            if (request.getStatus() == FeedbackStatus.APPROVED || request.getStatus() == FeedbackStatus.REJECTED) {
-                recalculateDepartmentRating(feedback.getDepartmentId());
-            }
+            // Entering or leaving APPROVED moves the department rating by one vote
+            ratingAggregationService.applyStatusChange(updatedFeedback, previousStatus);
 
             return mapToFeedbackResponse(updatedFeedback);
         } catch (ResourceNotFoundException e) {
@@ -185,6 +209,87 @@ public class FeedbackServiceImpl implements FeedbackService {
         }
     }
 
+    @Override
+    @Transactional
+    public BulkFeedbackStatusUpdateResponse bulkUpdateFeedbackStatus(BulkFeedbackStatusUpdateRequest request) {
+        FeedbackStatus status = request.getStatus();
+        Set<UUID> feedbackIds = new LinkedHashSet<>(request.getFeedbackIds());
+        log.info("Bulk updating status of {} feedbacks to: {}", feedbackIds.size(), status);
+
+        try {
+            List<FeedbackRepository.FeedbackStatusView> existing = feedbackRepository.lockStatusViewsByIdIn(feedbackIds);
+
+            // Only departments with feedback entering or leaving APPROVED need their rating rebuilt
+            Set<UUID> affectedDepartments = new HashSet<>();
+            Set<UUID> foundIds = new HashSet<>();
+            for (FeedbackRepository.FeedbackStatusView view : existing) {
+                foundIds.add(view.getId());
+                boolean wasApproved = view.getStatus() == FeedbackStatus.APPROVED;
+                if (view.getStatus() != status && (wasApproved || status == FeedbackStatus.APPROVED)) {
+                    affectedDepartments.add(view.getDepartmentId());
+                }
+            }
+
+            List<UUID> notFound = feedbackIds.stream()
+                    .filter(id -> !foundIds.contains(id))
+                    .collect(Collectors.toList());
+
+            int updated = foundIds.isEmpty() ? 0 : feedbackRepository.updateStatusByIdIn(foundIds, status);
+            log.info("Updated {} feedbacks to status: {}", updated, status);
+
+            for (UUID departmentId : affectedDepartments) {
+                ratingAggregationService.reconcile(departmentId);
+            }
+
+            return BulkFeedbackStatusUpdateResponse.builder()
+                    .status(status)
+                    .requested(feedbackIds.size())
+                    .updated(updated)
+                    .notFound(notFound)
+                    .reconciledDepartments(affectedDepartments)
+                    .build();
+        } catch (Exception e) {
+            log.error("Error bulk updating feedback status", e);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FeedbackQueuePage getPendingFeedbackQueue(String cursor, int size) {
+        log.info("Fetching pending feedback queue, cursor: {}, size: {}", cursor, size);
+
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_QUEUE_PAGE_SIZE));
+            Pageable limit = PageRequest.of(0, pageSize);
+
+            List<Feedback> feedbacks;
+            if (cursor == null || cursor.isBlank()) {
+                feedbacks = feedbackRepository.findByStatusOrderByCreatedAtDescIdDesc(FeedbackStatus.PENDING, limit);
+            } else {
+                QueueCursor position = decodeCursor(cursor);
+                feedbacks = feedbackRepository.findByStatusAfterCursor(
+                        FeedbackStatus.PENDING, position.createdAt(), position.id(), limit);
+            }
+
+            String nextCursor = null;
+            if (feedbacks.size() == pageSize) {
+                Feedback last = feedbacks.get(feedbacks.size() - 1);
+                nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+            }
+
+            return FeedbackQueuePage.builder()
+                    .items(mapToFeedbackResponses(feedbacks, false))
+                    .nextCursor(nextCursor)
+                    .build();
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error fetching pending feedback queue", e);
+            throw e;
+        }
+    }
+
     @Override
     @Transactional
     public FeedbackResponseDto addFeedbackResponse(FeedbackResponseRequest request) {
@@ -259,18 +364,89 @@ public class FeedbackServiceImpl implements FeedbackService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public DepartmentRatingWindowDto getDepartmentRatingWindow(UUID departmentId, int days) {
+        log.info("Fetching {}-day rating window for department: {}", days, departmentId);
+
+        if (days < 1 || days > MAX_RATING_WINDOW_DAYS) {
+            throw new BadRequestException("Rating window must be between 1 and " + MAX_RATING_WINDOW_DAYS + " days");
+        }
+
+        try {
+            return ratingAggregationService.getRatingWindow(departmentId, days);
+        } catch (Exception e) {
+            log.error("Error fetching rating window for department: {}", departmentId, e);
+            throw e;
+        }
+    }
+
+    @Override
     public List<DepartmentRatingDto> getAllDepartmentRatings() {
-        log.info("Fetching all department ratings");
+        return getDepartmentLeaderboard().getRatings();
+    }
+
+    @Override
+    public DepartmentLeaderboard getDepartmentLeaderboard() {
+        DepartmentLeaderboard snapshot = leaderboard;
+        if (snapshot == null) {
+            snapshot = refreshDepartmentLeaderboard();
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentRatingChanged(DepartmentRatingChangedEvent event) {
+        // Refreshed by the debounce timer so a burst of changes costs a single rebuild
+        leaderboardDirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.ratings.leaderboard-refresh-ms:2000}")
+    public void refreshDepartmentLeaderboardIfStale() {
+        DepartmentLeaderboard snapshot = leaderboard;
+        boolean expired = snapshot != null
+                && snapshot.getGeneratedAt().plus(leaderboardMaxAge).isBefore(LocalDateTime.now());
+
+        // The max age bounds staleness from rating changes made by other instances
+        if (leaderboardDirty.get() || expired) {
+            refreshDepartmentLeaderboard();
+        }
+    }
+
+    private synchronized DepartmentLeaderboard refreshDepartmentLeaderboard() {
+        log.info("Refreshing department leaderboard");
 
         try {
-            List<DepartmentRating> ratings = departmentRatingRepository.findAllOrderByAverageRatingDesc();
+            leaderboardDirty.set(false);
 
-            return ratings.stream()
+            List<DepartmentRatingDto> ratings = departmentRatingRepository.findAllOrderByAverageRatingDesc()
+                    .stream()
                     .map(this::mapToDepartmentRatingDto)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toUnmodifiableList());
+
+            StringBuilder content = new StringBuilder();
+            for (DepartmentRatingDto rating : ratings) {
+                content.append(rating.getDepartmentId()).append(':')
+                        .append(rating.getAverageRating()).append(':')
+                        .append(rating.getTotalRatings()).append(':')
+                        .append(rating.getRating1Count()).append(',')
+                        .append(rating.getRating2Count()).append(',')
+                        .append(rating.getRating3Count()).append(',')
+                        .append(rating.getRating4Count()).append(',')
+                        .append(rating.getRating5Count()).append(':')
+                        .append(rating.getUpdatedAt()).append(';');
+            }
+            String etag = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+
+            DepartmentLeaderboard previous = leaderboard;
+            leaderboard = new DepartmentLeaderboard(ratings, etag, LocalDateTime.now());
+
+            // Rating reads cached at the gateway are only stale once the content actually changed
+            if (previous != null && !previous.getEtag().equals(etag)) {
+                cacheInvalidationPublisher.invalidate("/api/feedbacks/ratings/**");
+            }
+            return leaderboard;
         } catch (Exception e) {
-            log.error("Error fetching all department ratings", e);
+            leaderboardDirty.set(true);
+            log.error("Error refreshing department leaderboard", e);
             throw e;
         }
     }
@@ -281,48 +457,102 @@ public class FeedbackServiceImpl implements FeedbackService {
         log.info("Recalculating rating for department: {}", departmentId);
 
         try {
-            // Get the average rating
-            Double averageRating = feedbackRepository.findAverageRatingByDepartmentId(departmentId);
-            if (averageRating == null) {
-                averageRating = 0.0;
-            }
+            ratingAggregationService.reconcile(departmentId);
+            log.info("Recalculated rating for department: {}", departmentId);
+        } catch (Exception e) {
+            log.error("Error recalculating rating for department: {}", departmentId, e);
+            throw e;
+        }
+    }
 
-            // Get the total number of approved ratings
-            Integer totalRatings = feedbackRepository.countByDepartmentId(departmentId);
+    @Override
+    @Transactional
+    public int reconcileAllDepartmentRatings() {
+        log.info("Reconciling ratings for all departments");
 
-            // Get the count for each rating
-            Integer rating1Count = feedbackRepository.countByDepartmentIdAndRating(departmentId, 1);
-            Integer rating2Count = feedbackRepository.countByDepartmentIdAndRating(departmentId, 2);
-            Integer rating3Count = feedbackRepository.countByDepartmentIdAndRating(departmentId, 3);
-            Integer rating4Count = feedbackRepository.countByDepartmentIdAndRating(departmentId, 4);
-            Integer rating5Count = feedbackRepository.countByDepartmentIdAndRating(departmentId, 5);
+        try {
+            return ratingAggregationService.reconcileAll();
+        } catch (Exception e) {
+            log.error("Error reconciling department ratings", e);
+            throw e;
+        }
+    }
 
-            // Update or create the department rating
-            DepartmentRating rating = departmentRatingRepository.findById(departmentId)
-                    .orElseGet(() -> DepartmentRating.builder().departmentId(departmentId).build());
+    /**
+     * Maps a page of feedback, loading the responses (or only their counts) of the whole page
+     * with a single IN query instead of one query per row.
+     */
+    private Page<com.smartcityfix.feedback.dto.FeedbackResponse> mapToFeedbackResponsePage(Page<Feedback> feedbacks, boolean includeResponses) {
+        return new PageImpl<>(mapToFeedbackResponses(feedbacks.getContent(), includeResponses),
+                feedbacks.getPageable(), feedbacks.getTotalElements());
+    }
 
-            rating.setAverageRating(averageRating);
-            rating.setTotalRatings(totalRatings);
-            rating.setRating1Count(rating1Count);
-            rating.setRating2Count(rating2Count);
-            rating.setRating3Count(rating3Count);
-            rating.setRating4Count(rating4Count);
-            rating.setRating5Count(rating5Count);
+    private List<com.smartcityfix.feedback.dto.FeedbackResponse> mapToFeedbackResponses(List<Feedback> feedbacks, boolean includeResponses) {
+        List<UUID> feedbackIds = feedbacks.stream()
+                .map(Feedback::getId)
+                .collect(Collectors.toList());
 
-            departmentRatingRepository.save(rating);
-            log.info("Recalculated rating for department: {}", departmentId);
-        } catch (Exception e) {
-            log.error("Error recalculating rating for department: {}", departmentId, e);
-            throw e;
+        if (feedbackIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (includeResponses) {
+            Map<UUID, List<FeedbackResponseDto>> responsesByFeedback = feedbackResponseRepository
+                    .findByFeedbackIdInOrderByCreatedAtAsc(feedbackIds)
+                    .stream()
+                    .map(this::mapToFeedbackResponseDto)
+                    .collect(Collectors.groupingBy(FeedbackResponseDto::getFeedbackId));
+
+            return feedbacks.stream()
+                    .map(feedback -> mapToFeedbackResponse(feedback,
+                            responsesByFeedback.getOrDefault(feedback.getId(), Collections.emptyList())))
+                    .collect(Collectors.toList());
+        }
+
+        Map<UUID, Long> countsByFeedback = feedbackResponseRepository.countByFeedbackIds(feedbackIds)
+                .stream()
+                .collect(Collectors.toMap(FeedbackResponseRepository.ResponseCount::getFeedbackId,
+                        FeedbackResponseRepository.ResponseCount::getCount));
+
+        return feedbacks.stream()
+                .map(feedback -> buildFeedbackResponse(feedback, null,
+                        countsByFeedback.getOrDefault(feedback.getId(), 0L).intValue()))
+                .collect(Collectors.toList());
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, UUID id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private QueueCursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new QueueCursor(LocalDateTime.parse(position.substring(0, separator)),
+                    UUID.fromString(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
         }
     }
 
+    private record QueueCursor(LocalDateTime createdAt, UUID id) {
+    }
+
     private com.smartcityfix.feedback.dto.FeedbackResponse mapToFeedbackResponse(Feedback feedback) {
         List<FeedbackResponseDto> responses = feedbackResponseRepository.findByFeedbackId(feedback.getId())
                 .stream()
                 .map(this::mapToFeedbackResponseDto)
                 .collect(Collectors.toList());
 
+        return mapToFeedbackResponse(feedback, responses);
+    }
+
+    private com.smartcityfix.feedback.dto.FeedbackResponse mapToFeedbackResponse(Feedback feedback, List<FeedbackResponseDto> responses) {
+        return buildFeedbackResponse(feedback, responses, responses.size());
+    }
+
+    private com.smartcityfix.feedback.dto.FeedbackResponse buildFeedbackResponse(Feedback feedback, List<FeedbackResponseDto> responses, int responseCount) {
         return com.smartcityfix.feedback.dto.FeedbackResponse.builder()
                 .id(feedback.getId())
                 .complaintId(feedback.getComplaintId())
@@ -335,6 +565,7 @@ public class FeedbackServiceImpl implements FeedbackService {
                 .createdAt(feedback.getCreatedAt())
                 .updatedAt(feedback.getUpdatedAt())
                 .responses(responses)
+                .responseCount(responseCount)
                 .build();
     }
 
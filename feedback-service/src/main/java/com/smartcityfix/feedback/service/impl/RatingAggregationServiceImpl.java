@@ -0,0 +1,162 @@
+package com.smartcityfix.feedback.service.impl;
+
+import com.smartcityfix.feedback.dto.DepartmentRatingWindowDto;
+import com.smartcityfix.feedback.model.DepartmentRating;
+import com.smartcityfix.feedback.model.Feedback;
+import com.smartcityfix.feedback.model.FeedbackStatus;
+import com.smartcityfix.feedback.repository.DepartmentRatingBucketRepository;
+import com.smartcityfix.feedback.repository.DepartmentRatingRepository;
+import com.smartcityfix.feedback.repository.FeedbackRepository;
+import com.smartcityfix.feedback.service.DepartmentRatingChangedEvent;
+import com.smartcityfix.feedback.service.RatingAggregationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregationServiceImpl implements RatingAggregationService {
+
+    private final FeedbackRepository feedbackRepository;
+    private final DepartmentRatingRepository departmentRatingRepository;
+    private final DepartmentRatingBucketRepository departmentRatingBucketRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    @Transactional
+    public void applyStatusChange(Feedback feedback, FeedbackStatus previousStatus) {
+        boolean wasApproved = previousStatus == FeedbackStatus.APPROVED;
+        boolean isApproved = feedback.getStatus() == FeedbackStatus.APPROVED;
+
+        if (wasApproved == isApproved) {
+            return;
+        }
+
+        int delta = isApproved ? 1 : -1;
+        departmentRatingRepository.insertIfAbsent(feedback.getDepartmentId());
+        departmentRatingRepository.applyRatingDelta(feedback.getDepartmentId(), feedback.getRating(), delta);
+        departmentRatingBucketRepository.applyRatingDelta(
+                feedback.getDepartmentId(), feedback.getCreatedAt().toLocalDate(), feedback.getRating(), delta);
+        applicationEventPublisher.publishEvent(new DepartmentRatingChangedEvent(feedback.getDepartmentId()));
+        log.info("Applied rating delta {} for rating {} to department: {}", delta, feedback.getRating(), feedback.getDepartmentId());
+    }
+
+    @Override
+    @Transactional
+    public DepartmentRating reconcile(UUID departmentId) {
+        log.info("Reconciling rating for department: {}", departmentId);
+
+        // Lock the rating before counting, so a concurrent delta either lands in the count or
+        // waits and applies on top of the rebuilt values
+        departmentRatingRepository.insertIfAbsent(departmentId);
+        DepartmentRating rating = departmentRatingRepository.findByIdForUpdate(departmentId)
+                .orElseThrow(() -> new IllegalStateException("Rating row missing for department " + departmentId));
+
+        applyHistogram(rating, toHistogram(feedbackRepository.countApprovedByRating(departmentId)));
+
+        departmentRatingBucketRepository.deleteByDepartmentId(departmentId);
+        departmentRatingBucketRepository.rebuildFromFeedback(departmentId);
+
+        DepartmentRating savedRating = departmentRatingRepository.save(rating);
+        applicationEventPublisher.publishEvent(new DepartmentRatingChangedEvent(departmentId));
+        return savedRating;
+    }
+
+    @Override
+    @Scheduled(cron = "${app.ratings.reconcile-cron:-}")
+    @Transactional
+    public int reconcileAll() {
+        log.info("Reconciling ratings for all departments");
+
+        // Lock every rating before counting, as in reconcile. Rows created after the lock are
+        // kept up to date by their deltas and are left alone
+        departmentRatingRepository.insertMissingForApprovedFeedback();
+        List<DepartmentRating> reconciled = departmentRatingRepository.findAllForUpdate();
+
+        Map<UUID, List<FeedbackRepository.RatingCount>> countsByDepartment = feedbackRepository.countAllApprovedByRating()
+                .stream()
+                .collect(Collectors.groupingBy(FeedbackRepository.RatingCount::getDepartmentId));
+
+        for (DepartmentRating rating : reconciled) {
+            applyHistogram(rating, toHistogram(countsByDepartment.getOrDefault(rating.getDepartmentId(), Collections.emptyList())));
+        }
+
+        departmentRatingRepository.saveAll(reconciled);
+
+        departmentRatingBucketRepository.deleteAllBuckets();
+        departmentRatingBucketRepository.rebuildAllFromFeedback();
+        applicationEventPublisher.publishEvent(new DepartmentRatingChangedEvent(null));
+        log.info("Reconciled ratings for {} departments", reconciled.size());
+        return reconciled.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DepartmentRatingWindowDto getRatingWindow(UUID departmentId, int days) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+
+        DepartmentRatingBucketRepository.WindowTotals totals = departmentRatingBucketRepository.sumSince(departmentId, from);
+        int[] histogram = {
+                totals.getRating1Count().intValue(),
+                totals.getRating2Count().intValue(),
+                totals.getRating3Count().intValue(),
+                totals.getRating4Count().intValue(),
+                totals.getRating5Count().intValue()
+        };
+
+        int total = 0;
+        long sum = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            total += histogram[i];
+            sum += (long) (i + 1) * histogram[i];
+        }
+
+        return DepartmentRatingWindowDto.builder()
+                .departmentId(departmentId)
+                .days(days)
+                .from(from)
+                .to(to)
+                .averageRating(total == 0 ? 0.0 : (double) sum / total)
+                .totalRatings(total)
+                .rating1Count(histogram[0])
+                .rating2Count(histogram[1])
+                .rating3Count(histogram[2])
+                .rating4Count(histogram[3])
+                .rating5Count(histogram[4])
+                .build();
+    }
+
+    private int[] toHistogram(List<FeedbackRepository.RatingCount> counts) {
+        int[] histogram = new int[5];
+        for (FeedbackRepository.RatingCount count : counts) {
+            histogram[count.getRating() - 1] = count.getCount().intValue();
+        }
+        return histogram;
+    }
+
+    private void applyHistogram(DepartmentRating rating, int[] histogram) {
+        int total = 0;
+        long sum = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            total += histogram[i];
+            sum += (long) (i + 1) * histogram[i];
+        }
+
+        rating.setRating1Count(histogram[0]);
+        rating.setRating2Count(histogram[1]);
+        rating.setRating3Count(histogram[2]);
+        rating.setRating4Count(histogram[3]);
+        rating.setRating5Count(histogram[4]);
+        rating.setTotalRatings(total);
+        rating.setAverageRating(total == 0 ? 0.0 : (double) sum / total);
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX idx_feedbacks_status_created_at ON feedbacks(status, created_at DESC, id DESC);
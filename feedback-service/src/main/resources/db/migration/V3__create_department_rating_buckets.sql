@@ -0,0 +1,24 @@
+CREATE TABLE department_rating_buckets (
+    department_id UUID NOT NULL,
+    bucket_date DATE NOT NULL,
+    rating1_count INTEGER NOT NULL DEFAULT 0,
+    rating2_count INTEGER NOT NULL DEFAULT 0,
+    rating3_count INTEGER NOT NULL DEFAULT 0,
+    rating4_count INTEGER NOT NULL DEFAULT 0,
+    rating5_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (department_id, bucket_date)
+);
+
+-- Backfill daily buckets from feedback approved before this migration
+INSERT INTO department_rating_buckets
+    (department_id, bucket_date, rating1_count, rating2_count, rating3_count, rating4_count, rating5_count)
+SELECT department_id,
+       CAST(created_at AS DATE),
+       SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END)
+FROM feedbacks
+WHERE status = 'APPROVED'
+GROUP BY department_id, CAST(created_at AS DATE);
@@ -0,0 +1,111 @@
+package com.smartcityfix.gateway.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "app.gateway.admission")
+public class AdmissionProperties {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private boolean enabled = true;
+
+    /**
+     * Quota per client for requests that match no route below.
+     */
+    private Quota defaultQuota = new Quota();
+
+    /**
+     * Requests in flight to the services across all routes before further ones are shed.
+     */
+    private int maxConcurrent = 1000;
+
+    /**
+     * Upper bound on tracked clients per instance. Beyond it, new clients of a route
+     * share one overflow bucket until idle buckets are swept.
+     */
+    private int maxClients = 100000;
+
+    /**
+     * Buckets that are full and unused for this long are dropped.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * API keys issued to clients. A request presenting one of them in X-API-Key gets its own
+     * quota; any other key is ignored, so made-up keys cannot multiply a client's quota.
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    /**
+     * Per-route overrides, matched in order.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    /**
+     * First route whose path pattern and, if given, methods match the request.
+     */
+    public Route findRoute(HttpMethod method, String path) {
+        for (Route route : routes) {
+            if (PATH_MATCHER.match(route.getPath(), path)
+                    && (route.getMethods().isEmpty() || route.getMethods().contains(method.name()))) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    @Data
+    public static class Quota {
+
+        /**
+         * Burst size: requests a client can make at once after being idle.
+         */
+        private int capacity = 100;
+
+        /**
+         * Sustained requests per second per client.
+         */
+        private double refillPerSecond = 50;
+    }
+
+    @Data
+    public static class Route {
+
+        /**
+         * Ant-style request path pattern, for example {@code /api/complaints/**}.
+         */
+        private String path;
+
+        /**
+         * HTTP methods the route applies to; all methods when empty.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Quota per client on this route; the default quota when not set.
+         */
+        private Quota quota;
+
+        /**
+         * Requests in flight on this route before further ones are shed; unlimited when not set.
+         */
+        private Integer maxConcurrent;
+
+        /**
+         * Identifies the route in bucket and counter keys.
+         */
+        public String key() {
+            return methods.isEmpty() ? path : methods + " " + path;
+        }
+    }
+}
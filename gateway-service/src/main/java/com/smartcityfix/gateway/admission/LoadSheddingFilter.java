@@ -0,0 +1,89 @@
+package com.smartcityfix.gateway.admission;
+
+import com.smartcityfix.gateway.support.ErrorResponses;
+import com.smartcityfix.gateway.support.ServicePaths;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps requests in flight to the services, globally and per route, and answers anything
+ * over the cap with 503 straight away. A slow service then costs queued callers a fast
+ * failure instead of piling more work onto its connection pool.
+ *
+ * <p>Route limits are matched on the path the service will see, like the rate limits.
+ * Runs after the response cache, so cache hits never count against the limits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    private final AdmissionProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> routeInFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        AdmissionProperties.Route route = properties.findRoute(request.getMethod(), ServicePaths.of(exchange));
+        AtomicInteger routeCounter = route != null && route.getMaxConcurrent() != null
+                ? routeInFlight.computeIfAbsent(route.key(), key -> new AtomicInteger())
+                : null;
+
+        if (!tryEnter(inFlight, properties.getMaxConcurrent())) {
+            return shed(exchange, "gateway");
+        }
+        if (routeCounter != null && !tryEnter(routeCounter, route.getMaxConcurrent())) {
+            inFlight.decrementAndGet();
+            return shed(exchange, route.key());
+        }
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    inFlight.decrementAndGet();
+                    if (routeCounter != null) {
+                        routeCounter.decrementAndGet();
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 30;
+    }
+
+    private boolean tryEnter(AtomicInteger counter, int limit) {
+        int current;
+        do {
+            current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, String limit) {
+        log.debug("Shedding {} {}: {} concurrency limit reached", exchange.getRequest().getMethod(),
+                exchange.getRequest().getPath(), limit);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return ErrorResponses.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, "Service is busy, please retry shortly");
+    }
+}
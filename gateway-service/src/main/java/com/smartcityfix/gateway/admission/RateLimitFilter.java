@@ -0,0 +1,99 @@
+package com.smartcityfix.gateway.admission;
+
+import com.smartcityfix.gateway.security.JwtAuthenticationFilter;
+import com.smartcityfix.gateway.support.ErrorResponses;
+import com.smartcityfix.gateway.support.ServicePaths;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies per-client quotas before requests are routed. Clients are identified by the
+ * verified user ID, then an X-API-Key header naming a configured key, then the remote
+ * address; requests over quota are answered with 429 and a Retry-After header.
+ *
+ * <p>Routes are matched on the path the service will see, so a discovery locator request
+ * such as {@code /user-service/api/users/login} gets the login quota too.
+ *
+ * <p>Runs after {@link JwtAuthenticationFilter}, so the user ID cannot be forged to borrow
+ * another user's quota.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private static final String DEFAULT_ROUTE = "default";
+    private static final long MAX_RETRY_AFTER_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdmissionProperties properties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        AdmissionProperties.Route route = properties.findRoute(request.getMethod(), ServicePaths.of(exchange));
+        AdmissionProperties.Quota quota = route != null && route.getQuota() != null ? route.getQuota() : properties.getDefaultQuota();
+        String client = clientKey(request);
+
+        TokenBucketRateLimiter.Decision decision = rateLimiter.tryAcquire(route != null ? route.key() : DEFAULT_ROUTE, client, quota);
+        if (!decision.allowed()) {
+            long retryAfterSeconds = retryAfterSeconds(decision.retryAfterNanos());
+            log.debug("Rate limited {} on {}", client, request.getPath());
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            exchange.getResponse().getHeaders().set(REMAINING_HEADER, "0");
+            return ErrorResponses.write(exchange, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please retry later");
+        }
+
+        exchange.getResponse().getHeaders().set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 15;
+    }
+
+    /**
+     * Whole seconds until the next token, rounded up. A quota that never refills reports
+     * Long.MAX_VALUE nanoseconds, so the result is capped instead of rounded by addition.
+     */
+    private static long retryAfterSeconds(long retryAfterNanos) {
+        long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        long seconds = retryAfterNanos / nanosPerSecond + (retryAfterNanos % nanosPerSecond > 0 ? 1 : 0);
+        return Math.min(MAX_RETRY_AFTER_SECONDS, Math.max(1, seconds));
+    }
+
+    private String clientKey(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+        if (StringUtils.hasText(userId)) {
+            return "user:" + userId;
+        }
+        String apiKey = request.getHeaders().getFirst(API_KEY_HEADER);
+        if (StringUtils.hasText(apiKey) && properties.getApiKeys().contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return "ip:" + (remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : "unknown");
+    }
+}
@@ -0,0 +1,123 @@
+package com.smartcityfix.gateway.admission;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets per route and client, held in memory on this gateway instance. Buckets
+ * live in a {@link ConcurrentHashMap}, so unrelated clients never contend, and each bucket
+ * is refilled lazily from the elapsed time when it is used. With several gateway
+ * instances the effective quota is the configured one times the number of instances
+ * a client's requests are spread over.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenBucketRateLimiter {
+
+    private static final String OVERFLOW_CLIENT = "overflow";
+
+    private final AdmissionProperties properties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void init() {
+        long intervalMs = Math.max(1000, properties.getIdleTimeout().toMillis() / 2);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepIdle, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Takes one token from the client's bucket for the route.
+     */
+    public Decision tryAcquire(String routeKey, String client, AdmissionProperties.Quota quota) {
+        String key = routeKey + '|' + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxClients()) {
+                key = routeKey + '|' + OVERFLOW_CLIENT;
+            }
+            bucket = buckets.computeIfAbsent(key, ignored -> new TokenBucket(quota.getCapacity(), quota.getRefillPerSecond()));
+        }
+        return bucket.tryConsume(System.nanoTime());
+    }
+
+    void sweepIdle() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        int removed = before - buckets.size();
+        if (removed > 0) {
+            log.debug("Removed {} idle rate limit buckets, {} remaining", removed, buckets.size());
+        }
+    }
+
+    /**
+     * Outcome of an acquire: remaining whole tokens if allowed, otherwise how long until
+     * the next token is available.
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterNanos) {
+    }
+
+    private static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+        private long lastUsed;
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+            this.lastUsed = lastRefill;
+        }
+
+        synchronized Decision tryConsume(long now) {
+            refill(now);
+            lastUsed = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return new Decision(true, (long) tokens, 0);
+            }
+            long wait = tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+            return new Decision(false, 0, wait);
+        }
+
+        synchronized boolean isIdle(long now, long idleNanos) {
+            refill(now);
+            return tokens >= capacity && now - lastUsed > idleNanos;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
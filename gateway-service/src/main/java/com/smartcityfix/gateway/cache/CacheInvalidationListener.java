@@ -0,0 +1,21 @@
+package com.smartcityfix.gateway.cache;
+
+import com.smartcityfix.common.event.CacheInvalidationEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener {
+
+    private final ResponseCache responseCache;
+
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void handleCacheInvalidationEvent(CacheInvalidationEvent event) {
+        log.info("Received CacheInvalidationEvent for {}", event.getPaths());
+        responseCache.invalidate(event.getPaths());
+    }
+}
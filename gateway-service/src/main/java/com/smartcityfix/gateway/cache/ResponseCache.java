@@ -0,0 +1,106 @@
+package com.smartcityfix.gateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * In-memory store of cached gateway responses, bounded by total body size with least
+ * recently used eviction. Expired entries are kept while there is room, so their ETag can
+ * still be used to revalidate with the origin instead of refetching the body.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public void put(String key, Entry entry) {
+        long maxBytes = properties.getMaxSize().toBytes();
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                totalBytes -= previous.size();
+            }
+            totalBytes += entry.size();
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Extends a revalidated entry by another TTL.
+     */
+    public synchronized void refresh(String key, Entry entry, Instant expiresAt) {
+        if (entries.get(key) == entry) {
+            entries.put(key, entry.withExpiresAt(expiresAt));
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.size();
+        }
+    }
+
+    /**
+     * Removes every entry whose request path matches one of the Ant-style patterns.
+     */
+    public void invalidate(Collection<String> patterns) {
+        int removed = 0;
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (patterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, entry.path()))) {
+                    totalBytes -= entry.size();
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        log.debug("Invalidated {} cached responses for {}", removed, patterns);
+    }
+
+    /**
+     * A cached 200 response. {@code originEtag} tells whether the ETag came from the origin
+     * service, in which case it can be used for a conditional request once the entry expires.
+     */
+    public record Entry(String path, HttpHeaders headers, byte[] body, String etag, boolean originEtag,
+                        Instant expiresAt) {
+
+        public boolean isFresh(Instant now) {
+            return expiresAt.isAfter(now);
+        }
+
+        long size() {
+            return body.length;
+        }
+
+        Entry withExpiresAt(Instant expiresAt) {
+            return new Entry(path, headers, body, etag, originEtag, expiresAt);
+        }
+    }
+}
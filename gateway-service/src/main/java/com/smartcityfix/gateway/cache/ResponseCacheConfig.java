@@ -0,0 +1,34 @@
+package com.smartcityfix.gateway.cache;
+
+import com.smartcityfix.common.messaging.EventRoute;
+import com.smartcityfix.common.messaging.EventTopology;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    /**
+     * Every gateway instance holds its own cache, so each needs its own copy of every
+     * invalidation: a server-named, exclusive queue that goes away with the instance.
+     */
+    @Bean
+    public Queue cacheInvalidationQueue(EventTopology eventTopology) {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("smartcityfix." + eventTopology.getService() + ".cache-invalidated."));
+    }
+
+    @Bean
+    public Binding cacheInvalidationBinding(Queue cacheInvalidationQueue, EventTopology eventTopology) {
+        return BindingBuilder.bind(cacheInvalidationQueue)
+                .to(new TopicExchange(eventTopology.getExchange(), true, false))
+                .with(EventRoute.CACHE_INVALIDATED.getRoutingKey());
+    }
+}
@@ -0,0 +1,238 @@
+package com.smartcityfix.gateway.cache;
+
+import com.smartcityfix.gateway.security.JwtAuthenticationFilter;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Serves configured GET endpoints from {@link ResponseCache}. Fresh entries are answered
+ * without contacting the service; expired entries with an origin ETag are revalidated with
+ * a conditional request. Clients sending a matching If-None-Match get a 304 either way.
+ *
+ * <p>Runs after {@link JwtAuthenticationFilter}, so the X-User-* headers used for scoped
+ * cache keys are the verified ones.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.DATE, HttpHeaders.SET_COOKIE, CACHE_STATUS_HEADER);
+
+    private final ResponseCache cache;
+    private final ResponseCacheProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String path = request.getPath().value();
+        ResponseCacheProperties.Route route = findRoute(path);
+        String requestCacheControl = String.valueOf(request.getHeaders().getCacheControl());
+        if (route == null || requestCacheControl.contains("no-store")) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request, route);
+        String clientEtags = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        ResponseCache.Entry entry = cache.get(key);
+
+        if (entry != null && entry.isFresh(Instant.now()) && !requestCacheControl.contains("no-cache")) {
+            return writeEntry(exchange.getResponse(), entry, clientEtags, "HIT");
+        }
+
+        // The client's own validators are answered here; only ours are sent to the origin
+        ResponseCache.Entry revalidating = entry != null && entry.originEtag() ? entry : null;
+        ServerHttpRequest forwarded = request.mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    if (revalidating != null) {
+                        headers.setIfNoneMatch(revalidating.etag());
+                    }
+                })
+                .build();
+
+        ServerHttpResponse response = new CachingResponse(exchange.getResponse(), key, path, route, revalidating, clientEtags);
+        return chain.filter(exchange.mutate().request(forwarded).response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+
+    private ResponseCacheProperties.Route findRoute(String path) {
+        for (ResponseCacheProperties.Route route : properties.getRoutes()) {
+            if (pathMatcher.match(route.getPath(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String cacheKey(ServerHttpRequest request, ResponseCacheProperties.Route route) {
+        HttpHeaders headers = request.getHeaders();
+        String scope = switch (route.getScope()) {
+            case PUBLIC -> "*";
+            case ROLE -> "role:" + headers.getFirst(JwtAuthenticationFilter.USER_ROLE_HEADER);
+            case USER -> "user:" + headers.getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+        };
+
+        StringBuilder key = new StringBuilder(scope).append(' ').append(request.getPath().value());
+        MultiValueMap<String, String> queryParams = request.getQueryParams();
+        Set<String> names = new TreeSet<>(route.getQueryParams().isEmpty() ? queryParams.keySet() : route.getQueryParams());
+        char separator = '?';
+        for (String name : names) {
+            List<String> values = queryParams.get(name);
+            if (values != null) {
+                key.append(separator).append(name).append('=').append(String.join(",", values));
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private Mono<Void> writeEntry(ServerHttpResponse response, ResponseCache.Entry entry, String clientEtags, String cacheStatus) {
+        // Replaces whatever an origin 304 carried; headers set by earlier filters are kept
+        HttpHeaders headers = response.getHeaders();
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.putAll(entry.headers());
+        headers.setETag(entry.etag());
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (matches(clientEtags, entry.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private static boolean matches(String clientEtags, String etag) {
+        if (clientEtags == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : clientEtags.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static boolean isStorable(HttpHeaders headers) {
+        String cacheControl = String.valueOf(headers.getCacheControl());
+        return !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && !cacheControl.contains("no-store")
+                && !cacheControl.contains("private");
+    }
+
+    /**
+     * Captures 200 responses into the cache and turns a 304 from the origin back into the
+     * cached response.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final String path;
+        private final ResponseCacheProperties.Route route;
+        private final ResponseCache.Entry revalidating;
+        private final String clientEtags;
+
+        CachingResponse(ServerHttpResponse delegate, String key, String path, ResponseCacheProperties.Route route,
+                        ResponseCache.Entry revalidating, String clientEtags) {
+            super(delegate);
+            this.key = key;
+            this.path = path;
+            this.route = route;
+            this.revalidating = revalidating;
+            this.clientEtags = clientEtags;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (revalidating != null && hasStatus(HttpStatus.NOT_MODIFIED)) {
+                cache.refresh(key, revalidating, Instant.now().plus(route.getTtl()));
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> writeEntry(getDelegate(), revalidating, clientEtags, "REVALIDATED")));
+            }
+
+            if (!hasStatus(HttpStatus.OK) || !isStorable(getHeaders())) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                HttpHeaders headers = getHeaders();
+                String originEtag = headers.getETag();
+                String etag = originEtag != null ? originEtag : "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+
+                if (bytes.length <= properties.getMaxEntrySize().toBytes()) {
+                    HttpHeaders stored = new HttpHeaders();
+                    headers.forEach((name, values) -> {
+                        if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                            stored.put(name, values);
+                        }
+                    });
+                    cache.put(key, new ResponseCache.Entry(path, HttpHeaders.readOnlyHttpHeaders(stored), bytes, etag,
+                            originEtag != null, Instant.now().plus(route.getTtl())));
+                }
+
+                headers.setETag(etag);
+                headers.set(CACHE_STATUS_HEADER, "MISS");
+                if (matches(clientEtags, etag)) {
+                    getDelegate().setStatusCode(HttpStatus.NOT_MODIFIED);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    return getDelegate().setComplete();
+                }
+                return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        private boolean hasStatus(HttpStatus status) {
+            return getStatusCode() != null && getStatusCode().value() == status.value();
+        }
+    }
+}
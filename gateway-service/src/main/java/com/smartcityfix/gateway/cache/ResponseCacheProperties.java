@@ -0,0 +1,63 @@
+package com.smartcityfix.gateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.gateway.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the body bytes held across all entries; least recently used entries
+     * are evicted beyond it.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Responses larger than this are passed through without being cached.
+     */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    /**
+     * Cacheable GET endpoints; requests not matching any entry are never cached.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * Ant-style request path pattern, for example {@code /api/departments/category/*}.
+         */
+        private String path;
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * Who may share a cached response. Defaults to users with the same role.
+         */
+        private Scope scope = Scope.ROLE;
+
+        /**
+         * Query parameters that select different responses and are part of the cache key.
+         * When empty, all query parameters are.
+         */
+        private List<String> queryParams = new ArrayList<>();
+    }
+
+    public enum Scope {
+        /** One response for everyone, including anonymous requests. */
+        PUBLIC,
+        /** One response per role in the verified token. */
+        ROLE,
+        /** One response per user. */
+        USER
+    }
+}
@@ -0,0 +1,30 @@
+package com.smartcityfix.gateway.hedging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits hedges to a fraction of the requests seen. Every hedgeable request deposits
+ * {@code budget-ratio} of a token, every hedge withdraws a whole one, and the balance is
+ * capped at {@code budget-burst}. When a service slows down across the board, the budget
+ * runs dry after the burst instead of doubling its load.
+ */
+@Component
+@RequiredArgsConstructor
+public class HedgingBudget {
+
+    private final HedgingProperties properties;
+    private double tokens;
+
+    public synchronized void deposit() {
+        tokens = Math.min(properties.getBudgetBurst(), tokens + properties.getBudgetRatio());
+    }
+
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
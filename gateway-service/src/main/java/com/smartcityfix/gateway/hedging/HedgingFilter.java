@@ -0,0 +1,246 @@
+package com.smartcityfix.gateway.hedging;
+
+import com.smartcityfix.gateway.loadbalancer.InstanceLoadStats;
+import com.smartcityfix.gateway.support.ErrorResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Routes configured GET endpoints itself instead of leaving it to the Netty routing filter.
+ * The request goes to the instance the load balancer picked; if no answer has arrived after
+ * the route's {@code hedge-after}, the same request is also sent to the least loaded other
+ * instance. Whichever answers first is returned and the other request is cancelled.
+ *
+ * <p>Hedges are paid for from {@link HedgingBudget}, so a service that is slow everywhere
+ * sees little extra load. Responses are buffered, which is why only small, idempotent
+ * reads belong on the route list.
+ *
+ * <p>Each request is reported to {@link InstanceLoadStats} against the instance it went
+ * to, with its own latency; the one that loses the race is recorded as cancelled.
+ */
+@Component
+@Slf4j
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private final HedgingProperties properties;
+    private final HedgingBudget budget;
+    private final LoadBalancerClientFactory clientFactory;
+    private final InstanceLoadStats loadStats;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final WebClient webClient;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter hedgesDenied;
+
+    public HedgingFilter(HedgingProperties properties, HedgingBudget budget, LoadBalancerClientFactory clientFactory,
+                         InstanceLoadStats loadStats, ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                         HttpClient httpClient, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.budget = budget;
+        this.clientFactory = clientFactory;
+        this.loadStats = loadStats;
+        this.headersFilters = headersFilters;
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) properties.getMaxResponseSize().toBytes()))
+                .build();
+        this.hedgesSent = hedgeCounter(meterRegistry, "sent");
+        this.hedgesWon = hedgeCounter(meterRegistry, "won");
+        this.hedgesDenied = hedgeCounter(meterRegistry, "denied");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET || isAlreadyRouted(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        HedgingProperties.Route route = findRoute(request.getPath().value());
+        URI primaryUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        Response<ServiceInstance> primary = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        Route gatewayRoute = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || primaryUrl == null || primary == null || !primary.hasServer() || gatewayRoute == null) {
+            return chain.filter(exchange);
+        }
+
+        setAlreadyRouted(exchange);
+        budget.deposit();
+        // The primary is recorded below rather than by the load balancer filter, which would
+        // credit it with the winner's status and the overall time
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, loadStats.recordedSeparately(primary));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange));
+        if (!Boolean.TRUE.equals(exchange.getAttribute(PRESERVE_HOST_HEADER_ATTRIBUTE))) {
+            headers.remove(HttpHeaders.HOST);
+        }
+
+        Mono<Attempt> first = tracked(primary.getServer(), true, send(primaryUrl, headers))
+                .map(response -> new Attempt(response, false));
+        Mono<Attempt> second = Mono.delay(route.getHedgeAfter())
+                .flatMap(tick -> pickOther(gatewayRoute.getUri().getHost(), primary.getServer()))
+                .filter(instance -> {
+                    if (budget.tryWithdraw()) {
+                        return true;
+                    }
+                    hedgesDenied.increment();
+                    return false;
+                })
+                .flatMap(instance -> {
+                    hedgesSent.increment();
+                    log.debug("Hedging GET {} to {}:{}", request.getPath(), instance.getHost(), instance.getPort());
+                    return tracked(instance, false, send(LoadBalancerUriTools.reconstructURI(instance, primaryUrl), headers));
+                })
+                .map(response -> new Attempt(response, true));
+
+        return Mono.firstWithValue(first, second)
+                .timeout(route.getTimeout())
+                .flatMap(attempt -> {
+                    if (attempt.hedge()) {
+                        hedgesWon.increment();
+                    }
+                    return write(exchange, attempt.response());
+                })
+                .onErrorResume(error -> exchange.getResponse().isCommitted() ? Mono.error(error) : fail(exchange, error));
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+
+    private HedgingProperties.Route findRoute(String path) {
+        for (HedgingProperties.Route route : properties.getRoutes()) {
+            if (pathMatcher.match(route.getPath(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private Mono<ResponseEntity<byte[]>> send(URI url, HttpHeaders headers) {
+        return webClient.get()
+                .uri(url)
+                .headers(target -> target.addAll(headers))
+                .exchangeToMono(response -> response.toEntity(byte[].class));
+    }
+
+    /**
+     * Reports the request to the load stats of its instance once it answers, fails or is
+     * cancelled. {@code started} is true when its start was already counted, as the load
+     * balancer filter does for the primary.
+     */
+    private Mono<ResponseEntity<byte[]>> tracked(ServiceInstance instance, boolean started, Mono<ResponseEntity<byte[]>> request) {
+        return Mono.defer(() -> {
+            if (!started) {
+                loadStats.startAttempt(instance);
+            }
+            long start = System.nanoTime();
+            AtomicBoolean completed = new AtomicBoolean();
+            return request
+                    .doOnSuccess(response -> {
+                        if (completed.compareAndSet(false, true)) {
+                            boolean failed = response == null || response.getStatusCode().is5xxServerError();
+                            loadStats.completeAttempt(instance, System.nanoTime() - start,
+                                    failed ? InstanceLoadStats.Outcome.FAILURE : InstanceLoadStats.Outcome.SUCCESS);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (completed.compareAndSet(false, true)) {
+                            loadStats.completeAttempt(instance, System.nanoTime() - start, InstanceLoadStats.Outcome.FAILURE);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (completed.compareAndSet(false, true)) {
+                            loadStats.completeAttempt(instance, System.nanoTime() - start, InstanceLoadStats.Outcome.CANCELLED);
+                        }
+                    });
+        });
+    }
+
+    private Mono<ServiceInstance> pickOther(String serviceId, ServiceInstance primary) {
+        ServiceInstanceListSupplier supplier = clientFactory.getInstance(serviceId, ServiceInstanceListSupplier.class);
+        if (supplier == null) {
+            return Mono.empty();
+        }
+        return supplier.get().next()
+                .flatMap(instances -> Mono.justOrEmpty(instances.stream()
+                        .filter(instance -> !instance.getHost().equals(primary.getHost()) || instance.getPort() != primary.getPort())
+                        .min(Comparator.comparingDouble(loadStats::cost))));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<byte[]> entity) {
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] body = entity.getBody() != null ? entity.getBody() : new byte[0];
+
+        response.setStatusCode(entity.getStatusCode());
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(HttpHeadersFilter.filter(headersFilters.getIfAvailable(), entity.getHeaders(), exchange,
+                HttpHeadersFilter.Type.RESPONSE));
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.setContentLength(body.length);
+        // Always through writeWith, which the response cache decorates to handle a 304
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Mono<Void> fail(ServerWebExchange exchange, Throwable error) {
+        if (error instanceof TimeoutException) {
+            log.warn("GET {} timed out", exchange.getRequest().getPath());
+            return ErrorResponses.write(exchange, HttpStatus.GATEWAY_TIMEOUT, "Service did not respond in time");
+        }
+        log.error("GET {} failed: {}", exchange.getRequest().getPath(), error.getMessage());
+        return ErrorResponses.write(exchange, HttpStatus.BAD_GATEWAY, "Service is unavailable");
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.hedging.requests")
+                .description("Hedged requests by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Attempt(ResponseEntity<byte[]> response, boolean hedge) {
+    }
+}
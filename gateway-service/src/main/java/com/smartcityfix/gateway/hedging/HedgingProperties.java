@@ -0,0 +1,57 @@
+package com.smartcityfix.gateway.hedging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Hedges allowed per primary request, averaged over time. At 0.1 hedging adds at most
+     * 10% to the load on the services, however slow they get.
+     */
+    private double budgetRatio = 0.1;
+
+    /**
+     * Unused hedges that can accumulate during quiet periods and be spent at once.
+     */
+    private int budgetBurst = 10;
+
+    /**
+     * Hedged responses are buffered in memory; larger ones fail with 502.
+     */
+    private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+
+    /**
+     * Idempotent GET endpoints to hedge; other requests are routed normally.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * Ant-style request path pattern, for example {@code /api/complaints/*}.
+         */
+        private String path;
+
+        /**
+         * Latency budget after which a second request is sent to another instance.
+         * Set it around the endpoint's p95, so about one request in twenty is hedged.
+         */
+        private Duration hedgeAfter = Duration.ofMillis(200);
+
+        /**
+         * Overall time to answer, across both requests, before failing with 504.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,279 @@
+package com.smartcityfix.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks outstanding requests and a peak-sensitive moving average of latency for every
+ * service instance the gateway routes to, fed by the load balancer lifecycle callbacks of
+ * Spring Cloud Gateway. The average jumps straight up to a slower sample and decays back
+ * over {@code decay-time}, so a replica that turns slow is avoided at once and only
+ * slowly trusted again.
+ *
+ * <p>Failed exchanges and 5xx responses count as at least {@code failure-penalty}, so a
+ * replica failing fast does not look attractive. Both values are exported per instance
+ * as gauges, next to a request timer.
+ *
+ * <p>The lifecycle has no callback for a cancelled exchange, such as a client disconnect,
+ * so {@link LoadBalancerCancellationFilter} reports those through {@link #cancelled}.
+ * Responses built by {@link #response} are released exactly once, whichever comes first.
+ *
+ * <p>Filters that send requests themselves, like hedging, report each attempt against its
+ * own instance through {@link #startAttempt} and {@link #completeAttempt}, and mark the
+ * load balancer response with {@link #recordedSeparately} so the lifecycle callbacks leave
+ * it alone.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstanceLoadStats implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    @Value("${app.gateway.load-balancer.decay-time:10s}")
+    private Duration decayTime;
+
+    @Value("${app.gateway.load-balancer.initial-latency:100ms}")
+    private Duration initialLatency;
+
+    @Value("${app.gateway.load-balancer.failure-penalty:2s}")
+    private Duration failurePenalty;
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        RequestDataContext context = request.getContext();
+        if (context != null && context.getRequestStartTime() == 0) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        load(lbResponse.getServer()).outstanding.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()
+                || lbResponse instanceof SeparatelyRecordedResponse
+                || (lbResponse instanceof TrackedResponse tracked && !tracked.release())) {
+            return;
+        }
+
+        InstanceLoad load = load(lbResponse.getServer());
+        load.outstanding.decrementAndGet();
+
+        long now = System.nanoTime();
+        RequestDataContext context = completionContext.getLoadBalancerRequest().getContext();
+        long startTime = context != null ? context.getRequestStartTime() : 0;
+        if (startTime == 0) {
+            return;
+        }
+
+        long elapsed = now - startTime;
+        ResponseData response = completionContext.getClientResponse();
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || (response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+
+        record(load, failed ? Outcome.FAILURE : Outcome.SUCCESS, elapsed, now);
+    }
+
+    /**
+     * Load balancer response for the chosen instance, released once by either
+     * {@link #onComplete} or {@link #cancelled}.
+     */
+    public Response<ServiceInstance> response(ServiceInstance instance) {
+        return new TrackedResponse(instance);
+    }
+
+    /**
+     * Records a routed exchange that was cancelled before completing, which the lifecycle
+     * callbacks never hear about. Without this every client disconnect would leave the
+     * instance with one more outstanding request for good.
+     */
+    public void cancelled(Response<ServiceInstance> lbResponse, long elapsedNanos) {
+        if (lbResponse instanceof TrackedResponse tracked && tracked.hasServer() && tracked.release()) {
+            completeAttempt(tracked.getServer(), elapsedNanos, Outcome.CANCELLED);
+        }
+    }
+
+    /**
+     * Wraps a load balancer response whose request is sent and reported through
+     * {@link #completeAttempt}, so {@link #onComplete} does not record it a second time.
+     * Its start was already counted by {@link #onStartRequest}.
+     */
+    public Response<ServiceInstance> recordedSeparately(Response<ServiceInstance> lbResponse) {
+        if (lbResponse instanceof TrackedResponse tracked) {
+            tracked.release();
+        }
+        return new SeparatelyRecordedResponse(lbResponse.getServer());
+    }
+
+    /**
+     * Counts a request sent to the instance outside the load balancer lifecycle.
+     */
+    public void startAttempt(ServiceInstance instance) {
+        load(instance).outstanding.incrementAndGet();
+    }
+
+    /**
+     * Records the end of a request counted by {@link #startAttempt}, or of the primary
+     * request of a response marked with {@link #recordedSeparately}.
+     */
+    public void completeAttempt(ServiceInstance instance, long elapsedNanos, Outcome outcome) {
+        InstanceLoad load = load(instance);
+        load.outstanding.decrementAndGet();
+        record(load, outcome, elapsedNanos, System.nanoTime());
+    }
+
+    /**
+     * Expected cost of sending one more request to the instance: its latency average
+     * scaled by the requests it is already serving.
+     */
+    public double cost(ServiceInstance instance) {
+        InstanceLoad load = load(instance);
+        return load.latencyNanos() * (load.outstanding.get() + 1);
+    }
+
+    private void record(InstanceLoad load, Outcome outcome, long elapsed, long now) {
+        load.timer(outcome).record(elapsed, TimeUnit.NANOSECONDS);
+        switch (outcome) {
+            case SUCCESS -> load.observe(elapsed, now);
+            case FAILURE -> load.observe(Math.max(elapsed, failurePenalty.toNanos()), now);
+            // Only a lower bound on the instance's latency, so it can raise the average but not lower it
+            case CANCELLED -> load.observeAtLeast(elapsed, now);
+        }
+    }
+
+    private InstanceLoad load(ServiceInstance instance) {
+        String key = instance.getServiceId() + "/" + instanceKey(instance);
+        return loads.computeIfAbsent(key, ignored -> new InstanceLoad(instance.getServiceId(), instanceKey(instance)));
+    }
+
+    private static String instanceKey(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        FAILURE,
+        /**
+         * Abandoned before answering, for example the slower of a request and its hedge.
+         */
+        CANCELLED
+    }
+
+    private static final class TrackedResponse extends DefaultResponse {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        TrackedResponse(ServiceInstance serviceInstance) {
+            super(serviceInstance);
+        }
+
+        boolean release() {
+            return released.compareAndSet(false, true);
+        }
+    }
+
+    private static final class SeparatelyRecordedResponse extends DefaultResponse {
+
+        SeparatelyRecordedResponse(ServiceInstance serviceInstance) {
+            super(serviceInstance);
+        }
+    }
+
+    private final class InstanceLoad {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final Timer successTimer;
+        private final Timer failureTimer;
+        private final Timer cancelledTimer;
+        private double ewmaNanos = initialLatency.toNanos();
+        private long lastSample = System.nanoTime();
+
+        InstanceLoad(String serviceId, String instance) {
+            Gauge.builder("gateway.loadbalancer.instance.latency", this, load -> load.latencyNanos() / 1_000_000)
+                    .description("Peak-sensitive moving average of response time")
+                    .baseUnit("milliseconds")
+                    .tag("service", serviceId)
+                    .tag("instance", instance)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.loadbalancer.instance.outstanding", outstanding, AtomicInteger::get)
+                    .description("Requests in flight to the instance")
+                    .tag("service", serviceId)
+                    .tag("instance", instance)
+                    .register(meterRegistry);
+            this.successTimer = timer(serviceId, instance, "success");
+            this.failureTimer = timer(serviceId, instance, "failure");
+            this.cancelledTimer = timer(serviceId, instance, "cancelled");
+        }
+
+        synchronized void observe(long sampleNanos, long now) {
+            if (sampleNanos > ewmaNanos) {
+                ewmaNanos = sampleNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - lastSample) / decayTime.toNanos());
+                ewmaNanos = ewmaNanos * weight + sampleNanos * (1 - weight);
+            }
+            lastSample = now;
+        }
+
+        synchronized void observeAtLeast(long sampleNanos, long now) {
+            if (sampleNanos > ewmaNanos) {
+                observe(sampleNanos, now);
+            }
+        }
+
+        synchronized double latencyNanos() {
+            return ewmaNanos;
+        }
+
+        Timer timer(Outcome outcome) {
+            return switch (outcome) {
+                case SUCCESS -> successTimer;
+                case FAILURE -> failureTimer;
+                case CANCELLED -> cancelledTimer;
+            };
+        }
+
+        private Timer timer(String serviceId, String instance, String outcome) {
+            return Timer.builder("gateway.loadbalancer.instance.requests")
+                    .description("Requests routed to the instance")
+                    .tag("service", serviceId)
+                    .tag("instance", instance)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.smartcityfix.gateway.loadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Reports exchanges cancelled after an instance was chosen, typically because the client
+ * disconnected, to {@link InstanceLoadStats}. The load balancer filter only completes its
+ * lifecycle on success or error, so the instance's outstanding count would otherwise never
+ * come back down.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadBalancerCancellationFilter implements GlobalFilter, Ordered {
+
+    private final InstanceLoadStats loadStats;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        Response<ServiceInstance> lbResponse = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+                        if (lbResponse != null) {
+                            loadStats.cancelled(lbResponse, System.nanoTime() - start);
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // Wraps the load balancer filter, which sets the response attribute
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
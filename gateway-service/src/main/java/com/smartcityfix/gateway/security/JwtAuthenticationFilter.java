@@ -0,0 +1,165 @@
+package com.smartcityfix.gateway.security;
+
+import com.smartcityfix.gateway.support.ErrorResponses;
+import com.smartcityfix.gateway.support.ServicePaths;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Verifies bearer tokens issued by user-service before requests are routed, so invalid
+ * or missing tokens are rejected at the edge. Verified claims are forwarded downstream
+ * as X-User-* headers; any such headers sent by the client are stripped first.
+ *
+ * <p>{@code public-paths} are the gateway's own endpoints and are matched against the
+ * request path as received. {@code api-public-paths} are service endpoints such as login
+ * and are matched against the path the service will see, so they also apply to discovery
+ * locator routes such as {@code /user-service/api/users/login}. A service's actuator is
+ * never reachable through a discovery locator route. A missing, expired or invalid token
+ * on a public path is ignored rather than rejected, and CORS preflight (OPTIONS) requests
+ * are passed through unauthenticated.
+ */
+@Component
+@Slf4j
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ACTUATOR_PATHS = "/actuator/**";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${app.gateway.auth.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.gateway.auth.public-paths:}")
+    private List<String> publicPaths;
+
+    @Value("${app.gateway.auth.api-public-paths:}")
+    private List<String> apiPublicPaths;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(USER_ID_HEADER);
+                    headers.remove(USER_EMAIL_HEADER);
+                    headers.remove(USER_ROLE_HEADER);
+                })
+                .build();
+
+        String path = request.getPath().value();
+        if (HttpMethod.OPTIONS.equals(request.getMethod())) {
+            return chain.filter(exchange.mutate().request(request).build());
+        }
+
+        String servicePath = ServicePaths.of(exchange);
+        if (!servicePath.equals(path) && pathMatcher.match(ACTUATOR_PATHS, servicePath)) {
+            log.debug("Refused actuator request {} through a discovery locator route", path);
+            return ErrorResponses.write(exchange, HttpStatus.NOT_FOUND, "Not found");
+        }
+
+        boolean isPublic = matchesAny(publicPaths, path) || matchesAny(apiPublicPaths, servicePath);
+        String token = getJwtFromRequest(request);
+
+        if (token == null) {
+            if (isPublic) {
+                return chain.filter(exchange.mutate().request(request).build());
+            }
+            return reject(exchange, "Authentication required");
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException ex) {
+            if (isPublic) {
+                log.debug("Ignoring invalid JWT on public path {}: {}", path, ex.getMessage());
+                return chain.filter(exchange.mutate().request(request).build());
+            }
+            if (ex instanceof ExpiredJwtException) {
+                log.debug("Rejected expired JWT for {}", path);
+                return reject(exchange, "Token has expired");
+            }
+            log.debug("Rejected invalid JWT for {}: {}", path, ex.getMessage());
+            return reject(exchange, "Invalid token");
+        }
+
+        ServerHttpRequest authenticated = request.mutate()
+                .headers(headers -> {
+                    setIfPresent(headers, USER_ID_HEADER, claims.get("id"));
+                    setIfPresent(headers, USER_EMAIL_HEADER, claims.get("email"));
+                    setIfPresent(headers, USER_ROLE_HEADER, claims.get("role"));
+                })
+                .build();
+
+        return chain.filter(exchange.mutate().request(authenticated).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Run before routing and load balancing so rejected requests never reach a service
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private String getJwtFromRequest(ServerHttpRequest request) {
+        String bearerToken = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
+    private void setIfPresent(HttpHeaders headers, String name, Object value) {
+        if (value != null) {
+            headers.set(name, value.toString());
+        }
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String message) {
+        return ErrorResponses.write(exchange, HttpStatus.UNAUTHORIZED, message);
+    }
+}
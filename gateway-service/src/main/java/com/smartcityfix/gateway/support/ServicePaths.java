@@ -0,0 +1,28 @@
+package com.smartcityfix.gateway.support;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Request paths as the target service will see them. Discovery locator routes prefix the
+ * path with the service id, which is rewritten away before the request is forwarded, so
+ * {@code /user-service/api/users/login} reaches user-service as {@code /api/users/login}.
+ */
+public final class ServicePaths {
+
+    private ServicePaths() {
+    }
+
+    public static String of(ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().value();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || route.getUri().getHost() == null) {
+            return path;
+        }
+        String prefix = "/" + route.getUri().getHost() + "/";
+        return path.regionMatches(true, 0, prefix, 0, prefix.length())
+                ? path.substring(prefix.length() - 1)
+                : path;
+    }
+}
@@ -0,0 +1,136 @@
+package com.smartcityfix.notification.client;
+
+import com.smartcityfix.notification.dto.UserContact;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cache-through loader for user contact details. Callers about to process many notifications
+ * should call {@link #loadAll} once with every user involved, so all misses are resolved in a
+ * single batch lookup; per-notification {@link #load} calls are then served from the cache.
+ * Unknown users are cached as well, so they are not looked up again until the entry expires.
+ * When the cache is full, expired entries are dropped first, then the least recently used.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserContactLoader {
+
+    private final UserServiceClient userServiceClient;
+
+    @Value("${app.user-service.contact-cache.ttl:PT10M}")
+    private Duration ttl;
+
+    @Value("${app.user-service.contact-cache.max-size:10000}")
+    private int maxSize;
+
+    // Access-ordered; guarded by its own monitor, since lookups reorder it
+    private final Map<UUID, CachedContact> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedContact> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    public Optional<UserContact> load(UUID userId) {
+        return Optional.ofNullable(loadAll(Set.of(userId)).get(userId));
+    }
+
+    /**
+     * Returns the known contacts among the given users. Users that could not be resolved,
+     * because they do not exist or user-service is unavailable, are absent from the result.
+     */
+    public Map<UUID, UserContact> loadAll(Collection<UUID> userIds) {
+        Instant now = Instant.now();
+        Map<UUID, UserContact> contacts = new HashMap<>();
+        Set<UUID> misses = new LinkedHashSet<>();
+
+        synchronized (cache) {
+            for (UUID userId : userIds) {
+                CachedContact cached = cache.get(userId);
+                if (cached != null && cached.expiresAt().isAfter(now)) {
+                    if (cached.contact() != null) {
+                        contacts.put(userId, cached.contact());
+                    }
+                } else {
+                    misses.add(userId);
+                }
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return contacts;
+        }
+
+        try {
+            Map<UUID, UserContact> fetched = new HashMap<>();
+            userServiceClient.lookupUsers(misses).forEach(contact -> fetched.put(contact.getId(), contact));
+
+            Instant expiresAt = Instant.now().plus(ttl);
+            synchronized (cache) {
+                makeRoom(misses.size());
+                for (UUID userId : misses) {
+                    UserContact contact = fetched.get(userId);
+                    cache.put(userId, new CachedContact(contact, expiresAt));
+                    if (contact != null) {
+                        contacts.put(userId, contact);
+                    }
+                }
+            }
+
+            log.info("Loaded contacts for {} users ({} served from cache)", misses.size(), userIds.size() - misses.size());
+        } catch (Exception e) {
+            // Leave the misses uncached so the next attempt retries them
+            log.error("Failed to load contacts for {} users from user-service", misses.size(), e);
+        }
+
+        return contacts;
+    }
+
+    /**
+     * True if user-service recently answered that the user does not exist, as opposed to the
+     * user not having been looked up or the lookup having failed.
+     */
+    public boolean isUnknown(UUID userId) {
+        CachedContact cached;
+        synchronized (cache) {
+            cached = cache.get(userId);
+        }
+        return cached != null && cached.contact() == null && cached.expiresAt().isAfter(Instant.now());
+    }
+
+    public void evict(UUID userId) {
+        synchronized (cache) {
+            cache.remove(userId);
+        }
+    }
+
+    /**
+     * Drops expired entries when the incoming ones would not fit. Anything still over the
+     * limit is evicted least recently used first as the new entries are put.
+     */
+    private void makeRoom(int incoming) {
+        if (cache.size() + incoming <= maxSize) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        cache.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+    }
+
+    private record CachedContact(UserContact contact, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartcityfix.notification.client;
+
+import com.smartcityfix.common.dto.ApiResponse;
+import com.smartcityfix.notification.dto.UserContact;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Calls user-service's batch lookup endpoint, splitting large requests into chunks the
+ * endpoint accepts. Requests are authenticated with this service's batch lookup key, which
+ * user-service accepts for that endpoint only.
+ */
+@Component
+@Slf4j
+public class UserServiceClient {
+
+    private static final ParameterizedTypeReference<ApiResponse<List<UserContact>>> CONTACTS_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final String SERVICE_KEY_HEADER = "X-Service-Key";
+
+    private final RestTemplate restTemplate;
+
+    @Value("${app.user-service.auth.service-key}")
+    private String serviceKey;
+
+    @Value("${app.user-service.url:http://user-service}")
+    private String baseUrl;
+
+    @Value("${app.user-service.max-batch-size:500}")
+    private int maxBatchSize;
+
+    public UserServiceClient(@Qualifier("userServiceRestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    public List<UserContact> lookupUsers(Collection<UUID> userIds) {
+        List<UUID> ids = new ArrayList<>(userIds);
+        List<UserContact> contacts = new ArrayList<>(ids.size());
+
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + maxBatchSize, ids.size()));
+            ApiResponse<List<UserContact>> response = restTemplate.exchange(
+                    baseUrl + "/api/users/batch-lookup",
+                    HttpMethod.POST,
+                    new HttpEntity<>(Map.of("ids", chunk), headers()),
+                    CONTACTS_TYPE).getBody();
+
+            if (response != null && response.getData() != null) {
+                contacts.addAll(response.getData());
+            }
+        }
+
+        log.debug("Resolved {} of {} users from user-service", contacts.size(), ids.size());
+        return contacts;
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(SERVICE_KEY_HEADER, serviceKey);
+        return headers;
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartcityfix.notification.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class UserServiceClientConfig {
+
+    @Value("${app.user-service.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${app.user-service.read-timeout:PT5S}")
+    private Duration readTimeout;
+
+    @Bean
+    @LoadBalanced
+    public RestTemplate userServiceRestTemplate(RestTemplateBuilder builder) {
+        return builder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+}
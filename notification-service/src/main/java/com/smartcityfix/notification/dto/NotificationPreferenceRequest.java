@@ -2,6 +2,8 @@ package com.smartcityfix.notification.dto;
 
 import com.smartcityfix.notification.model.NotificationChannel;
 import com.smartcityfix.notification.model.NotificationType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,4 +31,10 @@ public class NotificationPreferenceRequest {
     private Boolean smsEnabled;
 
     private Boolean inAppEnabled;
+
+    private Boolean digestEnabled;
+
+    @Min(value = 1, message = "Digest window must be between 1 and 1440 minutes")
+    @Max(value = 1440, message = "Digest window must be between 1 and 1440 minutes")
+    private Integer digestWindowMinutes;
 }
\ No newline at end of file
@@ -23,6 +23,8 @@ public class NotificationPreferenceResponse {
     private boolean emailEnabled;
     private boolean smsEnabled;
     private boolean inAppEnabled;
+    private boolean digestEnabled;
+    private int digestWindowMinutes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.smartcityfix.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContact {
+
+    private UUID id;
+    private String name;
+    private String email;
+    private String phone;
+}
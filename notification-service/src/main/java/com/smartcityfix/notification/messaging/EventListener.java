@@ -4,6 +4,7 @@ import com.smartcityfix.common.event.ComplaintAssignedEvent;
 import com.smartcityfix.common.event.ComplaintCreatedEvent;
 import com.smartcityfix.common.event.ComplaintResolvedEvent;
 import com.smartcityfix.common.event.UserRegisteredEvent;
+import com.smartcityfix.common.messaging.IdempotentListener;
 import com.smartcityfix.notification.dto.NotificationRequest;
 import com.smartcityfix.notification.model.NotificationChannel;
 import com.smartcityfix.notification.model.NotificationType;
@@ -13,7 +14,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -22,7 +24,8 @@ public class EventListener {
 
     private final NotificationService notificationService;
 
-    @RabbitListener(queues = "${app.rabbitmq.queue.user-registered}")
+    @IdempotentListener
+    @RabbitListener(queues = "#{@eventTopology.queue('user-registered')}")
     public void handleUserRegisteredEvent(UserRegisteredEvent event) {
         log.info("Received UserRegisteredEvent for user: {}", event.getUserId());
 
@@ -39,116 +42,112 @@ public class EventListener {
             log.info("Created welcome notification for user: {}", event.getUserId());
         } catch (Exception e) {
             log.error("Error processing UserRegisteredEvent", e);
+            throw e;
         }
     }
 
-    @RabbitListener(queues = "${app.rabbitmq.queue.complaint-created}")
-    public void handleComplaintCreatedEvent(ComplaintCreatedEvent event) {
-        log.info("Received ComplaintCreatedEvent for complaint: {}", event.getComplaintId());
+    @IdempotentListener
+    @RabbitListener(queues = "#{@eventTopology.queue('complaint-created')}", containerFactory = "batchListenerContainerFactory")
+    public void handleComplaintCreatedEvents(List<ComplaintCreatedEvent> events) {
+        log.info("Received batch of {} ComplaintCreatedEvents", events.size());
 
         try {
-            NotificationRequest request = NotificationRequest.builder()
-                    .userId(event.getReportedBy())
-                    .title("Complaint Submitted Successfully")
-                    .message("Your complaint has been submitted successfully. We will keep you updated on its progress.")
-                    .type(NotificationType.COMPLAINT_CREATED)
-                    .referenceId(event.getComplaintId())
-                    .channel(NotificationChannel.EMAIL)
-                    .build();
+            List<NotificationRequest> requests = new ArrayList<>();
 
-            notificationService.createNotification(request);
+            for (ComplaintCreatedEvent event : events) {
+                NotificationRequest.NotificationRequestBuilder request = NotificationRequest.builder()
+                        .userId(event.getReportedBy())
+                        .title("Complaint Submitted Successfully")
+                        .message("Your complaint has been submitted successfully. We will keep you updated on its progress.")
+                        .type(NotificationType.COMPLAINT_CREATED)
+                        .referenceId(event.getComplaintId());
 
-            // Also create in-app notification
-            NotificationRequest inAppRequest = NotificationRequest.builder()
-                    .userId(event.getReportedBy())
-                    .title("Complaint Submitted")
-                    .message("Your complaint has been submitted successfully.")
-                    .type(NotificationType.COMPLAINT_CREATED)
-                    .referenceId(event.getComplaintId())
-                    .channel(NotificationChannel.IN_APP)
-                    .build();
+                requests.addAll(forChannels(request, NotificationChannel.EMAIL, NotificationChannel.IN_APP));
+            }
 
-            notificationService.createNotification(inAppRequest);
+            notificationService.createNotifications(requests);
 
-            log.info("Created complaint submission notifications for user: {}", event.getReportedBy());
+            log.info("Created complaint submission notifications for {} complaints", events.size());
         } catch (Exception e) {
-            log.error("Error processing ComplaintCreatedEvent", e);
+            log.error("Error processing ComplaintCreatedEvent batch", e);
+            throw e;
         }
     }
 
-    @RabbitListener(queues = "${app.rabbitmq.queue.complaint-assigned}")
-    public void handleComplaintAssignedEvent(ComplaintAssignedEvent event) {
-        log.info("Received ComplaintAssignedEvent for complaint: {}", event.getComplaintId());
+    @IdempotentListener
+    @RabbitListener(queues = "#{@eventTopology.queue('complaint-assigned')}", containerFactory = "batchListenerContainerFactory")
+    public void handleComplaintAssignedEvents(List<ComplaintAssignedEvent> events) {
+        log.info("Received batch of {} ComplaintAssignedEvents", events.size());
 
         try {
-            // Get the user ID from the complaint service
-            // For now, we'll assume we have it in the event
-            UUID userId = event.getComplaintId(); // This should be the reporter's ID
+            List<NotificationRequest> requests = new ArrayList<>();
 
-            NotificationRequest request = NotificationRequest.builder()
-                    .userId(userId)
-                    .title("Complaint Assigned")
-                    .message("Your complaint has been assigned to " + event.getDepartmentName() + " department.")
-                    .type(NotificationType.COMPLAINT_ASSIGNED)
-                    .referenceId(event.getComplaintId())
-                    .channel(NotificationChannel.EMAIL)
-                    .build();
+            for (ComplaintAssignedEvent event : events) {
+                if (event.getReportedBy() == null) {
+                    // Published before events carried the reporter; there is no one to notify
+                    log.warn("ComplaintAssignedEvent for complaint {} has no reporter, skipping", event.getComplaintId());
+                    continue;
+                }
 
-            notificationService.createNotification(request);
+                NotificationRequest.NotificationRequestBuilder request = NotificationRequest.builder()
+                        .userId(event.getReportedBy())
+                        .title("Complaint Assigned")
+                        .message("Your complaint has been assigned to " + event.getDepartmentName() + " department.")
+                        .type(NotificationType.COMPLAINT_ASSIGNED)
+                        .referenceId(event.getComplaintId());
 
-            // Also create in-app notification
-            NotificationRequest inAppRequest = NotificationRequest.builder()
-                    .userId(userId)
-                    .title("Complaint Assigned")
-                    .message("Your complaint has been assigned to " + event.getDepartmentName() + " department.")
-                    .type(NotificationType.COMPLAINT_ASSIGNED)
-                    .referenceId(event.getComplaintId())
-                    .channel(NotificationChannel.IN_APP)
-                    .build();
+                requests.addAll(forChannels(request, NotificationChannel.EMAIL, NotificationChannel.IN_APP));
+            }
 
-            notificationService.createNotification(inAppRequest);
+            notificationService.createNotifications(requests);
 
-            log.info("Created complaint assignment notifications for user: {}", userId);
+            log.info("Created complaint assignment notifications for {} complaints", events.size());
         } catch (Exception e) {
-            log.error("Error processing ComplaintAssignedEvent", e);
+            log.error("Error processing ComplaintAssignedEvent batch", e);
+            throw e;
         }
     }
 
-    @RabbitListener(queues = "${app.rabbitmq.queue.complaint-resolved}")
-    public void handleComplaintResolvedEvent(ComplaintResolvedEvent event) {
-        log.info("Received ComplaintResolvedEvent for complaint: {}", event.getComplaintId());
+    @IdempotentListener
+    @RabbitListener(queues = "#{@eventTopology.queue('complaint-resolved')}", containerFactory = "batchListenerContainerFactory")
+    public void handleComplaintResolvedEvents(List<ComplaintResolvedEvent> events) {
+        log.info("Received batch of {} ComplaintResolvedEvents", events.size());
 
         try {
-            // Get the user ID from the complaint service
-            // For now, we'll assume we have it in the event
-            UUID userId = event.getComplaintId(); // This should be the reporter's ID
+            List<NotificationRequest> requests = new ArrayList<>();
 
-            NotificationRequest request = NotificationRequest.builder()
-                    .userId(userId)
-                    .title("Complaint Resolved")
-                    .message("Your complaint has been resolved. Thank you for using SmartCityFix.")
-                    .type(NotificationType.COMPLAINT_RESOLVED)
-                    .referenceId(event.getComplaintId())
-                    .channel(NotificationChannel.EMAIL)
-                    .build();
+            for (ComplaintResolvedEvent event : events) {
+                if (event.getReportedBy() == null) {
+                    // Published before events carried the reporter; there is no one to notify
+                    log.warn("ComplaintResolvedEvent for complaint {} has no reporter, skipping", event.getComplaintId());
+                    continue;
+                }
 
-            notificationService.createNotification(request);
+                NotificationRequest.NotificationRequestBuilder request = NotificationRequest.builder()
+                        .userId(event.getReportedBy())
+                        .title("Complaint Resolved")
+                        .message("Your complaint has been resolved. Thank you for using SmartCityFix.")
+                        .type(NotificationType.COMPLAINT_RESOLVED)
+                        .referenceId(event.getComplaintId());
 
-            // Also create in-app notification
-            NotificationRequest inAppRequest = NotificationRequest.builder()
-                    .userId(userId)
-                    .title("Complaint Resolved")
-                    .message("Your complaint has been resolved. Thank you for using SmartCityFix.")
-                    .type(NotificationType.COMPLAINT_RESOLVED)
-                    .referenceId(event.getComplaintId())
-                    .channel(NotificationChannel.IN_APP)
-                    .build();
+                requests.addAll(forChannels(request, NotificationChannel.EMAIL, NotificationChannel.IN_APP));
+            }
 
-            notificationService.createNotification(inAppRequest);
+            notificationService.createNotifications(requests);
 
-            log.info("Created complaint resolution notifications for user: {}", userId);
+            log.info("Created complaint resolution notifications for {} complaints", events.size());
         } catch (Exception e) {
-            log.error("Error processing ComplaintResolvedEvent", e);
+            log.error("Error processing ComplaintResolvedEvent batch", e);
+            throw e;
+        }
+    }
+
+    private List<NotificationRequest> forChannels(NotificationRequest.NotificationRequestBuilder request,
+                                                  NotificationChannel... channels) {
+        List<NotificationRequest> requests = new ArrayList<>(channels.length);
+        for (NotificationChannel channel : channels) {
+            requests.add(request.channel(channel).build());
         }
+        return requests;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.smartcityfix.notification.metrics;
+
+import com.smartcityfix.notification.model.NotificationChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-channel send metrics. The timer records each provider call once, however many
+ * messages it carried; the message counter tracks the channel's send throughput.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationMetrics {
+
+    public static final String SEND_TIMER = "notification.send";
+    public static final String MESSAGES_COUNTER = "notification.send.messages";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public void recordSend(NotificationChannel channel, String provider, boolean success, long durationNanos) {
+        recordBatch(channel, provider, success, durationNanos, success ? 1 : 0, success ? 0 : 1);
+    }
+
+    /**
+     * Records one provider call.
+     *
+     * @param callSucceeded whether the provider accepted the call, even if it rejected some messages
+     */
+    public void recordBatch(NotificationChannel channel, String provider, boolean callSucceeded, long durationNanos,
+                            int delivered, int failed) {
+        timer(channel, provider, outcome(callSucceeded)).record(durationNanos, TimeUnit.NANOSECONDS);
+        if (delivered > 0) {
+            counter(channel, provider, outcome(true)).increment(delivered);
+        }
+        if (failed > 0) {
+            counter(channel, provider, outcome(false)).increment(failed);
+        }
+    }
+
+    private Timer timer(NotificationChannel channel, String provider, String outcome) {
+        return timers.computeIfAbsent(channel + "|" + provider + "|" + outcome, key -> Timer.builder(SEND_TIMER)
+                .description("Time taken to hand a notification or batch to its channel provider")
+                .tag("channel", channel.name())
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Counter counter(NotificationChannel channel, String provider, String outcome) {
+        return counters.computeIfAbsent(channel + "|" + provider + "|" + outcome, key -> Counter.builder(MESSAGES_COUNTER)
+                .description("Notifications handed to their channel provider")
+                .tag("channel", channel.name())
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "failure";
+    }
+}
@@ -53,6 +53,16 @@ public class Notification {
     @Column
     private LocalDateTime sentAt;
 
+    // Delivery rounds that ended without the notification being sent
+    @Column(nullable = false)
+    @Builder.Default
+    private int deliveryAttempts = 0;
+
+    // Given up on: the recipient cannot be reached or delivery kept failing
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean failed = false;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
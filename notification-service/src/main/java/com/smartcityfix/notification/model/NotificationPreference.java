@@ -57,6 +57,14 @@ public class NotificationPreference {
     @Builder.Default
     private boolean inAppEnabled = true;
 
+    @Column
+    @Builder.Default
+    private boolean digestEnabled = false;
+
+    @Column
+    @Builder.Default
+    private int digestWindowMinutes = 15;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -8,5 +8,6 @@ public enum NotificationType {
     COMPLAINT_CLOSED,
     ACCOUNT_CREATED,
     ACCOUNT_UPDATED,
+    DIGEST,
     GENERAL
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.smartcityfix.notification.repository;
 
 import com.smartcityfix.notification.model.NotificationPreference;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
@@ -9,4 +12,27 @@ import java.util.UUID;
 @Repository
 public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, UUID> {
 
+    /**
+     * Inserts preferences unless the user already has them, including ones inserted by a
+     * concurrent transaction. Returns 1 if this call created the row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_preferences " +
+            "(user_id, email_enabled, sms_enabled, in_app_enabled, digest_enabled, digest_window_minutes) " +
+            "VALUES (:userId, :emailEnabled, :smsEnabled, :inAppEnabled, :digestEnabled, :digestWindowMinutes) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId,
+                       @Param("emailEnabled") boolean emailEnabled,
+                       @Param("smsEnabled") boolean smsEnabled,
+                       @Param("inAppEnabled") boolean inAppEnabled,
+                       @Param("digestEnabled") boolean digestEnabled,
+                       @Param("digestWindowMinutes") int digestWindowMinutes);
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_channels (user_id, channel) VALUES (:userId, :channel)", nativeQuery = true)
+    int insertChannel(@Param("userId") UUID userId, @Param("channel") String channel);
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_types (user_id, type) VALUES (:userId, :type)", nativeQuery = true)
+    int insertType(@Param("userId") UUID userId, @Param("type") String type);
 }
\ No newline at end of file
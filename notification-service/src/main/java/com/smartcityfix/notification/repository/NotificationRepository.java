@@ -5,10 +5,14 @@ import com.smartcityfix.notification.model.NotificationChannel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,8 +25,31 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
 
     List<Notification> findByUserIdAndSent(UUID userId, boolean sent);
 
-    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.channel = :channel AND n.sent = false")
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.channel = :channel AND n.sent = false AND n.failed = false")
     List<Notification> findPendingNotifications(@Param("userId") UUID userId, @Param("channel") NotificationChannel channel);
 
+    List<Notification> findByChannelAndSentFalseAndFailedFalseOrderByCreatedAtAsc(NotificationChannel channel);
+
     long countByUserIdAndRead(UUID userId, boolean read);
-}
\ No newline at end of file
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.sent = true, n.sentAt = :sentAt WHERE n.id IN :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Counts one more delivery attempt, and marks the notifications failed once they have used
+     * up {@code maxAttempts}.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.deliveryAttempts = n.deliveryAttempts + 1, " +
+            "n.failed = CASE WHEN n.deliveryAttempts + 1 >= :maxAttempts THEN true ELSE n.failed END " +
+            "WHERE n.id IN :ids")
+    int recordFailedAttempt(@Param("ids") Collection<UUID> ids, @Param("maxAttempts") int maxAttempts);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.deliveryAttempts = n.deliveryAttempts + 1, n.failed = true WHERE n.id IN :ids")
+    int markFailed(@Param("ids") Collection<UUID> ids);
+}
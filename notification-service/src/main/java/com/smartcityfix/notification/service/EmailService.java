@@ -4,6 +4,8 @@ import com.smartcityfix.notification.dto.NotificationRequest;
 import com.smartcityfix.notification.model.EmailTemplate;
 import com.smartcityfix.notification.model.Notification;
 
+import java.util.List;
+
 public interface EmailService {
 
     void sendEmail(Notification notification);
@@ -11,4 +13,6 @@ public interface EmailService {
     void sendEmail(String to, String subject, String body);
 
     String processTemplate(EmailTemplate template, NotificationRequest request);
+
+    String processDigestTemplate(EmailTemplate template, List<Notification> notifications);
 }
\ No newline at end of file
@@ -13,6 +13,8 @@ public interface NotificationService {
 
     List<NotificationResponse> createBulkNotifications(BulkNotificationRequest request);
 
+    List<NotificationResponse> createNotifications(List<NotificationRequest> requests);
+
     NotificationResponse getNotificationById(UUID id);
 
     Page<NotificationResponse> getUserNotifications(UUID userId, Boolean read, int page, int size);
@@ -0,0 +1,16 @@
+package com.smartcityfix.notification.service;
+
+import com.smartcityfix.notification.model.Notification;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface SmsService {
+
+    /**
+     * Dispatches the notifications through the configured SMS provider.
+     *
+     * @return future completing with the notifications that were delivered
+     */
+    CompletableFuture<List<Notification>> sendBatch(List<Notification> notifications);
+}
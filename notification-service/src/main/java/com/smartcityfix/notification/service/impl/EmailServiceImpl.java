@@ -1,8 +1,12 @@
 package com.smartcityfix.notification.service.impl;
 
+import com.smartcityfix.notification.client.UserContactLoader;
 import com.smartcityfix.notification.dto.NotificationRequest;
+import com.smartcityfix.notification.dto.UserContact;
+import com.smartcityfix.notification.metrics.NotificationMetrics;
 import com.smartcityfix.notification.model.EmailTemplate;
 import com.smartcityfix.notification.model.Notification;
+import com.smartcityfix.notification.model.NotificationChannel;
 import com.smartcityfix.notification.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +16,9 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +26,8 @@ import java.util.Map;
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
+    private final NotificationMetrics notificationMetrics;
+    private final UserContactLoader userContactLoader;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -27,11 +35,10 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendEmail(Notification notification) {
         try {
-            // In a real application, you would fetch the user's email from the User Service
-            // For now, we'll use a placeholder
-            String userEmail = notification.getUserId() + "@example.com";
+            UserContact contact = userContactLoader.load(notification.getUserId())
+                    .orElseThrow(() -> new IllegalStateException("No contact details for user " + notification.getUserId()));
 
-            sendEmail(userEmail, notification.getTitle(), notification.getMessage());
+            sendEmail(contact.getEmail(), notification.getTitle(), notification.getMessage());
             log.info("Email sent to user: {}", notification.getUserId());
         } catch (Exception e) {
             log.error("Error sending email to user: {}", notification.getUserId(), e);
@@ -41,6 +48,7 @@ public class EmailServiceImpl implements EmailService {
 
     @Override
     public void sendEmail(String to, String subject, String body) {
+        long start = System.nanoTime();
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom(fromEmail);
@@ -49,8 +57,10 @@ public class EmailServiceImpl implements EmailService {
             message.setText(body);
 
             mailSender.send(message);
+            notificationMetrics.recordSend(NotificationChannel.EMAIL, "smtp", true, System.nanoTime() - start);
             log.info("Email sent to: {}", to);
         } catch (Exception e) {
+            notificationMetrics.recordSend(NotificationChannel.EMAIL, "smtp", false, System.nanoTime() - start);
             log.error("Error sending email to: {}", to, e);
             throw e;
         }
@@ -75,4 +85,16 @@ public class EmailServiceImpl implements EmailService {
 
         return templateContent;
     }
+
+    @Override
+    public String processDigestTemplate(EmailTemplate template, List<Notification> notifications) {
+        String items = notifications.stream()
+                .map(notification -> "- " + notification.getTitle() + ": " + notification.getMessage())
+                .collect(Collectors.joining("\n"));
+
+        return template.getTemplate()
+                .replace("{{count}}", String.valueOf(notifications.size()))
+                .replace("{{items}}", items)
+                .replace("{{userId}}", notifications.get(0).getUserId().toString());
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.smartcityfix.notification.service.impl;
 
 import com.smartcityfix.common.exception.ResourceNotFoundException;
+import com.smartcityfix.notification.client.UserContactLoader;
 import com.smartcityfix.notification.dto.*;
 import com.smartcityfix.notification.model.*;
 import com.smartcityfix.notification.repository.EmailTemplateRepository;
@@ -8,10 +9,12 @@ import com.smartcityfix.notification.repository.NotificationPreferenceRepository
 import com.smartcityfix.notification.repository.NotificationRepository;
 import com.smartcityfix.notification.service.EmailService;
 import com.smartcityfix.notification.service.NotificationService;
+import com.smartcityfix.notification.service.SmsService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,9 +22,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +38,11 @@ public class NotificationServiceImpl implements NotificationService {
     private final NotificationPreferenceRepository preferenceRepository;
     private final EmailTemplateRepository templateRepository;
     private final EmailService emailService;
+    private final SmsService smsService;
+    private final UserContactLoader userContactLoader;
+
+    @Value("${app.notification.delivery.max-attempts:10}")
+    private int maxDeliveryAttempts;
 
     @Override
     @Transactional
@@ -78,15 +88,12 @@ public class NotificationServiceImpl implements NotificationService {
         log.info("Creating bulk notifications for {} users", request.getUserIds().size());
 
         try {
+            Map<UUID, NotificationPreference> preferencesByUser = resolvePreferences(request.getUserIds());
             List<Notification> notifications = new ArrayList<>();
 
             for (UUID userId : request.getUserIds()) {
-                // Check if user has preferences
-                NotificationPreference preferences = preferenceRepository.findById(userId)
-                        .orElseGet(() -> createDefaultPreferences(userId));
-
                 // Check if user wants this type of notification on this channel
-                if (shouldSendNotification(preferences, request.getType(), request.getChannel())) {
+                if (shouldSendNotification(preferencesByUser.get(userId), request.getType(), request.getChannel())) {
                     Notification notification = Notification.builder()
                             .userId(userId)
                             .title(request.getTitle())
@@ -114,6 +121,51 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
+    @Override
+    @Transactional
+    public List<NotificationResponse> createNotifications(List<NotificationRequest> requests) {
+        log.info("Creating {} notifications in a single batch", requests.size());
+
+        try {
+            Set<UUID> userIds = requests.stream()
+                    .map(NotificationRequest::getUserId)
+                    .collect(Collectors.toSet());
+            Map<UUID, NotificationPreference> preferencesByUser = resolvePreferences(userIds);
+
+            List<Notification> notifications = new ArrayList<>();
+
+            for (NotificationRequest request : requests) {
+                if (!shouldSendNotification(preferencesByUser.get(request.getUserId()), request.getType(), request.getChannel())) {
+                    log.debug("User {} has disabled {} notifications on {} channel",
+                            request.getUserId(), request.getType(), request.getChannel());
+                    continue;
+                }
+
+                notifications.add(Notification.builder()
+                        .userId(request.getUserId())
+                        .title(request.getTitle())
+                        .message(request.getMessage())
+                        .type(request.getType())
+                        .referenceId(request.getReferenceId())
+                        .channel(request.getChannel())
+                        .read(false)
+                        .sent(false)
+                        .build());
+            }
+
+            // Inserts are grouped into JDBC batches (see hibernate.jdbc.batch_size)
+            List<Notification> savedNotifications = notificationRepository.saveAll(notifications);
+            log.info("Created {} of {} requested notifications", savedNotifications.size(), requests.size());
+
+            return savedNotifications.stream()
+                    .map(this::mapToNotificationResponse)
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            log.error("Error creating notifications", e);
+            throw e;
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public NotificationResponse getNotificationById(UUID id) {
@@ -208,78 +260,270 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
+    // Deliberately not transactional: provider calls and their retries run without holding a
+    // connection, and each result is written by a set-based update in its own short transaction
+    // rather than by merging the detached notifications back one row at a time
     @Override
     @Scheduled(fixedRate = 60000) // Run every minute
-    @Transactional
     @CircuitBreaker(name = "notificationService", fallbackMethod = "sendPendingNotificationsFallback")
     @Retry(name = "notificationService")
     public void sendPendingNotifications() {
         log.info("Sending pending notifications");
 
         try {
-            // Process email notifications
-            List<Notification> pendingEmails = notificationRepository.findAll().stream()
-                    .filter(n -> n.getChannel() == NotificationChannel.EMAIL && !n.isSent())
-                    .collect(Collectors.toList());
+            List<Notification> pendingEmails = new ArrayList<>(
+                    notificationRepository.findByChannelAndSentFalseAndFailedFalseOrderByCreatedAtAsc(NotificationChannel.EMAIL));
+            List<Notification> pendingSms = new ArrayList<>(
+                    notificationRepository.findByChannelAndSentFalseAndFailedFalseOrderByCreatedAtAsc(NotificationChannel.SMS));
+
+            // Notifications of users in digest mode are held back and merged per user
+            Map<UUID, NotificationPreference> digestPreferences = findDigestPreferences(pendingEmails, pendingSms);
+            Map<UUID, List<Notification>> emailDigests = holdForDigest(pendingEmails, digestPreferences);
+            Map<UUID, List<Notification>> smsDigests = holdForDigest(pendingSms, digestPreferences);
+
+            // Resolve every recipient's contact details in one batch lookup up front
+            Set<UUID> recipients = new HashSet<>();
+            pendingEmails.forEach(notification -> recipients.add(notification.getUserId()));
+            pendingSms.forEach(notification -> recipients.add(notification.getUserId()));
+            recipients.addAll(emailDigests.keySet());
+            recipients.addAll(smsDigests.keySet());
+            Map<UUID, UserContact> contacts = userContactLoader.loadAll(recipients);
+
+            // Recipients user-service does not know, or without an address for the channel, are
+            // given up on now rather than retried every round
+            List<Notification> unreachable = new ArrayList<>();
+            removeUndeliverable(pendingEmails, contacts, unreachable);
+            removeUndeliverable(pendingSms, contacts, unreachable);
+            for (List<Notification> held : emailDigests.values()) {
+                removeUndeliverable(held, contacts, unreachable);
+            }
+            for (List<Notification> held : smsDigests.values()) {
+                removeUndeliverable(held, contacts, unreachable);
+            }
+            emailDigests.values().removeIf(List::isEmpty);
+            smsDigests.values().removeIf(List::isEmpty);
+            markFailed(unreachable);
 
+            // Process email notifications
             for (Notification notification : pendingEmails) {
                 try {
                     emailService.sendEmail(notification);
 
-                    notification.setSent(true);
-                    notification.setSentAt(LocalDateTime.now());
-                    notificationRepository.save(notification);
+                    notificationRepository.markSent(List.of(notification.getId()), LocalDateTime.now());
 
                     log.info("Sent email notification: {}", notification.getId());
                 } catch (Exception e) {
                     log.error("Error sending email notification: {}", notification.getId(), e);
+                    recordFailedAttempt(List.of(notification));
                     // Continue with next notification
                 }
             }
 
-            // Process SMS notifications (would integrate with SMS provider)
-            List<Notification> pendingSms = notificationRepository.findAll().stream()
-                    .filter(n -> n.getChannel() == NotificationChannel.SMS && !n.isSent())
-                    .collect(Collectors.toList());
+            // Process SMS notifications through the configured provider
+            if (!pendingSms.isEmpty()) {
+                List<Notification> deliveredSms = smsService.sendBatch(pendingSms).join();
 
-            for (Notification notification : pendingSms) {
-                try {
-                    // Simulate sending SMS
-                    log.info("Simulating SMS sending for notification: {}", notification.getId());
-
-                    notification.setSent(true);
-                    notification.setSentAt(LocalDateTime.now());
-                    notificationRepository.save(notification);
-
-                    log.info("Sent SMS notification: {}", notification.getId());
-                } catch (Exception e) {
-                    log.error("Error sending SMS notification: {}", notification.getId(), e);
-                    // Continue with next notification
+                if (!deliveredSms.isEmpty()) {
+                    notificationRepository.markSent(idsOf(deliveredSms), LocalDateTime.now());
                 }
+                log.info("Sent {} of {} SMS notifications", deliveredSms.size(), pendingSms.size());
+
+                Set<Notification> delivered = Collections.newSetFromMap(new IdentityHashMap<>());
+                delivered.addAll(deliveredSms);
+                recordFailedAttempt(pendingSms.stream()
+                        .filter(notification -> !delivered.contains(notification))
+                        .collect(Collectors.toList()));
             }
 
-            // In-app notifications are considered sent immediately
-            List<Notification> pendingInApp = notificationRepository.findAll().stream()
-                    .filter(n -> n.getChannel() == NotificationChannel.IN_APP && !n.isSent())
-                    .collect(Collectors.toList());
+            int digested = sendDueDigests(emailDigests, digestPreferences, digest -> emailService.sendEmail(digest))
+                    + sendDueDigests(smsDigests, digestPreferences, this::sendSmsDigest);
 
-            for (Notification notification : pendingInApp) {
-                notification.setSent(true);
-                notification.setSentAt(LocalDateTime.now());
-            }
+            // In-app notifications are considered sent immediately
+            List<Notification> pendingInApp = notificationRepository.findByChannelAndSentFalseAndFailedFalseOrderByCreatedAtAsc(NotificationChannel.IN_APP);
 
             if (!pendingInApp.isEmpty()) {
-                notificationRepository.saveAll(pendingInApp);
+                notificationRepository.markSent(idsOf(pendingInApp), LocalDateTime.now());
                 log.info("Marked {} in-app notifications as sent", pendingInApp.size());
             }
 
-            log.info("Processed {} pending notifications", pendingEmails.size() + pendingSms.size() + pendingInApp.size());
+            log.info("Processed {} pending notifications ({} merged into digests)",
+                    pendingEmails.size() + pendingSms.size() + pendingInApp.size() + digested, digested);
         } catch (Exception e) {
             log.error("Error sending pending notifications", e);
             throw e;
         }
     }
 
+    /**
+     * Removes from {@code pending} every notification that cannot be sent this round. Those
+     * whose recipient is unknown or has no address for the channel are added to
+     * {@code unreachable}; those whose contact lookup failed stay pending for the next round
+     * without counting as an attempt.
+     */
+    private void removeUndeliverable(List<Notification> pending, Map<UUID, UserContact> contacts,
+                                     List<Notification> unreachable) {
+        Iterator<Notification> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Notification notification = iterator.next();
+            UserContact contact = contacts.get(notification.getUserId());
+            if (contact == null) {
+                if (userContactLoader.isUnknown(notification.getUserId())) {
+                    unreachable.add(notification);
+                }
+                iterator.remove();
+            } else if (!StringUtils.hasText(notification.getChannel() == NotificationChannel.SMS ? contact.getPhone() : contact.getEmail())) {
+                unreachable.add(notification);
+                iterator.remove();
+            }
+        }
+    }
+
+    private void markFailed(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        notificationRepository.markFailed(idsOf(notifications));
+        log.warn("Marked {} notifications as failed: recipient unknown or without an address for the channel", notifications.size());
+    }
+
+    /**
+     * Counts a delivery round that did not send the notifications, and gives up on those
+     * that have now used up {@code max-attempts}.
+     */
+    private void recordFailedAttempt(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        notificationRepository.recordFailedAttempt(idsOf(notifications), maxDeliveryAttempts);
+
+        long exhausted = notifications.stream()
+                .filter(notification -> notification.getDeliveryAttempts() + 1 >= maxDeliveryAttempts)
+                .count();
+
+        if (exhausted > 0) {
+            log.warn("Marked {} notifications as failed after {} delivery attempts", exhausted, maxDeliveryAttempts);
+        }
+    }
+
+    private static List<UUID> idsOf(List<Notification> notifications) {
+        return notifications.stream()
+                .map(Notification::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Map<UUID, NotificationPreference> findDigestPreferences(List<Notification> pendingEmails, List<Notification> pendingSms) {
+        Set<UUID> userIds = new HashSet<>();
+        pendingEmails.forEach(notification -> userIds.add(notification.getUserId()));
+        pendingSms.forEach(notification -> userIds.add(notification.getUserId()));
+
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return preferenceRepository.findAllById(userIds).stream()
+                .filter(NotificationPreference::isDigestEnabled)
+                .collect(Collectors.toMap(NotificationPreference::getUserId, preference -> preference));
+    }
+
+    /**
+     * Removes the notifications of digest users from {@code pending} and returns them grouped by user,
+     * preserving creation order.
+     */
+    private Map<UUID, List<Notification>> holdForDigest(List<Notification> pending, Map<UUID, NotificationPreference> digestPreferences) {
+        Map<UUID, List<Notification>> held = new LinkedHashMap<>();
+
+        Iterator<Notification> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Notification notification = iterator.next();
+            if (digestPreferences.containsKey(notification.getUserId())) {
+                held.computeIfAbsent(notification.getUserId(), userId -> new ArrayList<>()).add(notification);
+                iterator.remove();
+            }
+        }
+
+        return held;
+    }
+
+    /**
+     * Sends one merged message per user whose digest window (measured from the oldest held
+     * notification) has elapsed, and marks all merged notifications as sent.
+     *
+     * @return number of notifications covered by the digests that were sent
+     */
+    private int sendDueDigests(Map<UUID, List<Notification>> digests,
+                               Map<UUID, NotificationPreference> digestPreferences,
+                               Consumer<Notification> sender) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailTemplate digestTemplate = digests.isEmpty() ? null : templateRepository.findById(NotificationType.DIGEST).orElse(null);
+        int digested = 0;
+
+        for (Map.Entry<UUID, List<Notification>> entry : digests.entrySet()) {
+            UUID userId = entry.getKey();
+            List<Notification> held = entry.getValue();
+            LocalDateTime windowEnd = held.get(0).getCreatedAt()
+                    .plusMinutes(digestPreferences.get(userId).getDigestWindowMinutes());
+
+            if (windowEnd.isAfter(now)) {
+                log.debug("Holding {} notifications for digest of user {} until {}", held.size(), userId, windowEnd);
+                continue;
+            }
+
+            try {
+                sender.accept(buildDigest(held, digestTemplate));
+
+                notificationRepository.markSent(idsOf(held), now);
+                digested += held.size();
+
+                log.info("Sent digest of {} notifications to user: {}", held.size(), userId);
+            } catch (Exception e) {
+                log.error("Error sending digest to user: {}", userId, e);
+                recordFailedAttempt(held);
+                // Continue with next user
+            }
+        }
+
+        return digested;
+    }
+
+    private void sendSmsDigest(Notification digest) {
+        if (smsService.sendBatch(List.of(digest)).join().isEmpty()) {
+            throw new IllegalStateException("SMS digest was not delivered for user " + digest.getUserId());
+        }
+    }
+
+    private Notification buildDigest(List<Notification> held, EmailTemplate digestTemplate) {
+        Notification first = held.get(0);
+
+        // A single held notification goes out unchanged
+        if (held.size() == 1) {
+            return first;
+        }
+
+        String title;
+        String message;
+        if (digestTemplate != null) {
+            title = digestTemplate.getSubject();
+            message = emailService.processDigestTemplate(digestTemplate, held);
+        } else {
+            title = "You have " + held.size() + " updates from SmartCityFix";
+            message = held.stream()
+                    .map(notification -> "- " + notification.getTitle() + ": " + notification.getMessage())
+                    .collect(Collectors.joining("\n"));
+        }
+
+        // Transient message only; the merged notifications remain the persisted records
+        return Notification.builder()
+                .userId(first.getUserId())
+                .title(title)
+                .message(message)
+                .type(NotificationType.DIGEST)
+                .channel(first.getChannel())
+                .createdAt(first.getCreatedAt())
+                .build();
+    }
+
     public void sendPendingNotificationsFallback(Exception e) {
         log.error("Fallback: Error sending pending notifications", e);
         // Could implement retry logic or alert monitoring system
@@ -330,6 +574,14 @@ public class NotificationServiceImpl implements NotificationService {
                 preferences.setInAppEnabled(request.getInAppEnabled());
             }
 
+            if (request.getDigestEnabled() != null) {
+                preferences.setDigestEnabled(request.getDigestEnabled());
+            }
+
+            if (request.getDigestWindowMinutes() != null) {
+                preferences.setDigestWindowMinutes(request.getDigestWindowMinutes());
+            }
+
             NotificationPreference updatedPreferences = preferenceRepository.save(preferences);
             log.info("Updated notification preferences for user: {}", request.getUserId());
 
@@ -428,9 +680,61 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
+    /**
+     * Loads the preferences of all given users with a single query and creates default
+     * preferences for users that have none yet. They are inserted directly, without the
+     * SELECT a merge would cost, and a user created meanwhile by a concurrent batch is
+     * loaded instead of failing this one on the primary key.
+     */
+    private Map<UUID, NotificationPreference> resolvePreferences(Collection<UUID> userIds) {
+        Map<UUID, NotificationPreference> preferencesByUser = preferenceRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(NotificationPreference::getUserId, preference -> preference));
+
+        List<UUID> missingUserIds = userIds.stream()
+                .distinct()
+                .filter(userId -> !preferencesByUser.containsKey(userId))
+                .collect(Collectors.toList());
+
+        if (!missingUserIds.isEmpty()) {
+            log.info("Creating default notification preferences for {} users", missingUserIds.size());
+            List<UUID> createdConcurrently = new ArrayList<>();
+            for (UUID userId : missingUserIds) {
+                NotificationPreference preference = buildDefaultPreferences(userId);
+                if (insertIfAbsent(preference)) {
+                    preferencesByUser.put(userId, preference);
+                } else {
+                    createdConcurrently.add(userId);
+                }
+            }
+            if (!createdConcurrently.isEmpty()) {
+                preferenceRepository.findAllById(createdConcurrently)
+                        .forEach(preference -> preferencesByUser.put(preference.getUserId(), preference));
+            }
+        }
+
+        return preferencesByUser;
+    }
+
+    private boolean insertIfAbsent(NotificationPreference preference) {
+        UUID userId = preference.getUserId();
+        int inserted = preferenceRepository.insertIfAbsent(userId, preference.isEmailEnabled(), preference.isSmsEnabled(),
+                preference.isInAppEnabled(), preference.isDigestEnabled(), preference.getDigestWindowMinutes());
+        if (inserted == 0) {
+            return false;
+        }
+        preference.getEnabledChannels().forEach(channel -> preferenceRepository.insertChannel(userId, channel.name()));
+        preference.getEnabledTypes().forEach(type -> preferenceRepository.insertType(userId, type.name()));
+        return true;
+    }
+
     private NotificationPreference createDefaultPreferences(UUID userId) {
         log.info("Creating default notification preferences for user: {}", userId);
 
+        return preferenceRepository.save(buildDefaultPreferences(userId));
+    }
+
+    private NotificationPreference buildDefaultPreferences(UUID userId) {
+
         Set<NotificationChannel> defaultChannels = new HashSet<>();
         defaultChannels.add(NotificationChannel.EMAIL);
         defaultChannels.add(NotificationChannel.IN_APP);
@@ -442,7 +746,7 @@ public class NotificationServiceImpl implements NotificationService {
         defaultTypes.add(NotificationType.COMPLAINT_RESOLVED);
         defaultTypes.add(NotificationType.ACCOUNT_CREATED);
 
-        NotificationPreference preferences = NotificationPreference.builder()
+        return NotificationPreference.builder()
                 .userId(userId)
                 .enabledChannels(defaultChannels)
                 .enabledTypes(defaultTypes)
@@ -450,8 +754,6 @@ public class NotificationServiceImpl implements NotificationService {
                 .smsEnabled(false)
                 .inAppEnabled(true)
                 .build();
-
-        return preferenceRepository.save(preferences);
     }
 
     private boolean shouldSendNotification(NotificationPreference preferences, NotificationType type, NotificationChannel channel) {
@@ -502,6 +804,8 @@ public class NotificationServiceImpl implements NotificationService {
                 .emailEnabled(preference.isEmailEnabled())
                 .smsEnabled(preference.isSmsEnabled())
                 .inAppEnabled(preference.isInAppEnabled())
+                .digestEnabled(preference.isDigestEnabled())
+                .digestWindowMinutes(preference.getDigestWindowMinutes())
                 .createdAt(preference.getCreatedAt())
                 .updatedAt(preference.getUpdatedAt())
                 .build();
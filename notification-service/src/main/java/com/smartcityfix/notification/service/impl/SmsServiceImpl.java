@@ -0,0 +1,188 @@
+package com.smartcityfix.notification.service.impl;
+
+import com.smartcityfix.notification.client.UserContactLoader;
+import com.smartcityfix.notification.dto.UserContact;
+import com.smartcityfix.notification.metrics.NotificationMetrics;
+import com.smartcityfix.notification.model.Notification;
+import com.smartcityfix.notification.model.NotificationChannel;
+import com.smartcityfix.notification.service.SmsService;
+import com.smartcityfix.notification.sms.SmsMessage;
+import com.smartcityfix.notification.sms.SmsProvider;
+import com.smartcityfix.notification.sms.SmsSendResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class SmsServiceImpl implements SmsService {
+
+    private final SmsProvider smsProvider;
+    private final NotificationMetrics notificationMetrics;
+    private final UserContactLoader userContactLoader;
+    private final ThreadPoolTaskExecutor executor;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public SmsServiceImpl(SmsProvider smsProvider,
+                          NotificationMetrics notificationMetrics,
+                          UserContactLoader userContactLoader,
+                          @Value("${app.notification.sms.max-concurrency:4}") int maxConcurrency,
+                          @Value("${app.notification.sms.max-attempts:3}") int maxAttempts,
+                          @Value("${app.notification.sms.initial-backoff-ms:200}") long initialBackoffMs,
+                          @Value("${app.notification.sms.max-backoff-ms:5000}") long maxBackoffMs) {
+        this.smsProvider = smsProvider;
+        this.notificationMetrics = notificationMetrics;
+        this.userContactLoader = userContactLoader;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        // The pool size is the cap on concurrent provider calls
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(maxConcurrency);
+        this.executor.setMaxPoolSize(maxConcurrency);
+        this.executor.setThreadNamePrefix("sms-dispatch-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<List<Notification>> sendBatch(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        Map<UUID, UserContact> contacts = userContactLoader.loadAll(notifications.stream()
+                .map(Notification::getUserId)
+                .collect(Collectors.toSet()));
+
+        Map<String, Notification> byReference = new LinkedHashMap<>();
+        List<SmsMessage> messages = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            UserContact contact = contacts.get(notification.getUserId());
+            if (contact == null || !StringUtils.hasText(contact.getPhone())) {
+                // Left unsent; the scheduler marks recipients without a phone number as failed
+                log.warn("No phone number for user {}, skipping SMS {}", notification.getUserId(), notification.getId());
+                continue;
+            }
+
+            String reference = UUID.randomUUID().toString();
+            byReference.put(reference, notification);
+            messages.add(toMessage(reference, contact.getPhone(), notification));
+        }
+
+        if (messages.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        int batchSize = Math.max(1, smsProvider.getMaxBatchSize());
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<SmsMessage> chunk = messages.subList(from, Math.min(from + batchSize, messages.size()));
+            chunks.add(dispatch(chunk, 1));
+        }
+
+        log.info("Dispatching {} SMS messages in {} batches via provider {}", messages.size(), chunks.size(), smsProvider.getName());
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> chunks.stream()
+                        .flatMap(chunk -> chunk.join().stream())
+                        .map(byReference::get)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Sends one provider batch and retries the retryable failures with jittered exponential backoff.
+     *
+     * @return future completing with the references of delivered messages
+     */
+    private CompletableFuture<List<String>> dispatch(List<SmsMessage> messages, int attempt) {
+        return CompletableFuture.supplyAsync(() -> callProvider(messages), executor)
+                .thenCompose(results -> {
+                    List<String> delivered = new ArrayList<>();
+                    Set<String> retryable = new HashSet<>();
+                    for (SmsSendResult result : results) {
+                        if (result.isSuccess()) {
+                            delivered.add(result.getReference());
+                        } else if (result.isRetryable()) {
+                            retryable.add(result.getReference());
+                        } else {
+                            log.warn("SMS {} rejected by provider {}: {}", result.getReference(), smsProvider.getName(), result.getError());
+                        }
+                    }
+
+                    if (retryable.isEmpty()) {
+                        return CompletableFuture.completedFuture(delivered);
+                    }
+
+                    if (attempt >= maxAttempts) {
+                        log.warn("Giving up on {} SMS messages after {} attempts", retryable.size(), attempt);
+                        return CompletableFuture.completedFuture(delivered);
+                    }
+
+                    List<SmsMessage> retry = messages.stream()
+                            .filter(message -> retryable.contains(message.getReference()))
+                            .collect(Collectors.toList());
+                    long delay = backoff(attempt);
+                    log.info("Retrying {} SMS messages in {} ms (attempt {} of {})", retry.size(), delay, attempt + 1, maxAttempts);
+
+                    return CompletableFuture.supplyAsync(() -> retry, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                            .thenCompose(pending -> dispatch(pending, attempt + 1))
+                            .thenApply(retried -> {
+                                delivered.addAll(retried);
+                                return delivered;
+                            });
+                });
+    }
+
+    private List<SmsSendResult> callProvider(List<SmsMessage> messages) {
+        long start = System.nanoTime();
+        try {
+            List<SmsSendResult> results = smsProvider.sendBatch(messages);
+            long elapsed = System.nanoTime() - start;
+
+            int delivered = (int) results.stream().filter(SmsSendResult::isSuccess).count();
+            notificationMetrics.recordBatch(NotificationChannel.SMS, smsProvider.getName(), true, elapsed,
+                    delivered, results.size() - delivered);
+            return results;
+        } catch (Exception e) {
+            notificationMetrics.recordBatch(NotificationChannel.SMS, smsProvider.getName(), false, System.nanoTime() - start,
+                    0, messages.size());
+            log.error("SMS provider {} failed for batch of {} messages", smsProvider.getName(), messages.size(), e);
+            return messages.stream()
+                    .map(message -> SmsSendResult.failure(message.getReference(), true, e.getMessage()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Full-jitter backoff: a random delay between zero and the capped exponential step.
+     */
+    private long backoff(int attempt) {
+        long step = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(step + 1);
+    }
+
+    private SmsMessage toMessage(String reference, String phone, Notification notification) {
+        return SmsMessage.builder()
+                .reference(reference)
+                .to(phone)
+                .body(notification.getTitle() + ": " + notification.getMessage())
+                .build();
+    }
+}
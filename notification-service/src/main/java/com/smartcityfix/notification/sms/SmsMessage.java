@@ -0,0 +1,17 @@
+package com.smartcityfix.notification.sms;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmsMessage {
+
+    private String reference;
+    private String to;
+    private String body;
+}
@@ -0,0 +1,23 @@
+package com.smartcityfix.notification.sms;
+
+import java.util.List;
+
+/**
+ * SPI for SMS gateways. Implementations submit a batch of messages in a single provider call
+ * and report a result for every message; they must be thread-safe as batches are dispatched
+ * concurrently.
+ */
+public interface SmsProvider {
+
+    String getName();
+
+    /**
+     * Largest number of messages the provider accepts in one {@link #sendBatch(List)} call.
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Sends the given messages. A thrown exception marks the whole batch as failed and retryable.
+     */
+    List<SmsSendResult> sendBatch(List<SmsMessage> messages) throws SmsProviderException;
+}
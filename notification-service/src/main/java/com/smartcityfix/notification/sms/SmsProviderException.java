@@ -0,0 +1,11 @@
+package com.smartcityfix.notification.sms;
+
+public class SmsProviderException extends RuntimeException {
+    public SmsProviderException(String message) {
+        super(message);
+    }
+
+    public SmsProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
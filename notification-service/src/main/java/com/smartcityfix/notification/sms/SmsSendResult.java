@@ -0,0 +1,34 @@
+package com.smartcityfix.notification.sms;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmsSendResult {
+
+    private String reference;
+    private boolean success;
+    private boolean retryable;
+    private String error;
+
+    public static SmsSendResult success(String reference) {
+        return SmsSendResult.builder()
+                .reference(reference)
+                .success(true)
+                .build();
+    }
+
+    public static SmsSendResult failure(String reference, boolean retryable, String error) {
+        return SmsSendResult.builder()
+                .reference(reference)
+                .success(false)
+                .retryable(retryable)
+                .error(error)
+                .build();
+    }
+}
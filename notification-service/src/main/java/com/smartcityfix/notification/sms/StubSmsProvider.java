@@ -0,0 +1,75 @@
+package com.smartcityfix.notification.sms;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process provider that delivers nothing. Sent messages are kept in memory (bounded) so tests
+ * and local runs can inspect them, and a failure rate can be configured to exercise retries.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notification.sms.provider", havingValue = "stub", matchIfMissing = true)
+@Slf4j
+public class StubSmsProvider implements SmsProvider {
+
+    private static final int MAX_RETAINED_MESSAGES = 1000;
+
+    private final Queue<SmsMessage> sentMessages = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.notification.sms.stub.batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${app.notification.sms.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public List<SmsSendResult> sendBatch(List<SmsMessage> messages) {
+        List<SmsSendResult> results = new ArrayList<>(messages.size());
+
+        for (SmsMessage message : messages) {
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                results.add(SmsSendResult.failure(message.getReference(), true, "Simulated failure"));
+                continue;
+            }
+
+            sentMessages.add(message);
+            if (sentMessages.size() > MAX_RETAINED_MESSAGES) {
+                sentMessages.poll();
+            }
+            results.add(SmsSendResult.success(message.getReference()));
+        }
+
+        log.info("Stub SMS provider accepted {} of {} messages", messages.size() - countFailures(results), messages.size());
+        return results;
+    }
+
+    public List<SmsMessage> getSentMessages() {
+        return new ArrayList<>(sentMessages);
+    }
+
+    public void clear() {
+        sentMessages.clear();
+    }
+
+    private long countFailures(List<SmsSendResult> results) {
+        return results.stream().filter(result -> !result.isSuccess()).count();
+    }
+}
@@ -0,0 +1,5 @@
+ALTER TABLE notification_preferences
+    ADD COLUMN digest_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN digest_window_minutes INTEGER NOT NULL DEFAULT 15;
+
+CREATE INDEX idx_notifications_pending ON notifications(channel, sent, created_at);
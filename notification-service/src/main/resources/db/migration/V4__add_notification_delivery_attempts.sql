@@ -0,0 +1,7 @@
+-- Notifications that cannot be delivered are marked failed instead of being retried forever
+ALTER TABLE notifications
+    ADD COLUMN delivery_attempts INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN failed BOOLEAN NOT NULL DEFAULT FALSE;
+
+DROP INDEX idx_notifications_pending;
+CREATE INDEX idx_notifications_pending ON notifications(channel, sent, failed, created_at);
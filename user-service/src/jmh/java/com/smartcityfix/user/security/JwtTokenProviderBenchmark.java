@@ -0,0 +1,75 @@
+package com.smartcityfix.user.security;
+
+import com.smartcityfix.user.model.User;
+import com.smartcityfix.user.model.UserRole;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification with and without the verified-token cache. {@code tokens} larger
+ * than {@code maxSize} exercises LRU eviction on every miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    @Param({"1000", "20000"})
+    private int tokens;
+
+    @Param("10000")
+    private int maxSize;
+
+    private JwtTokenProvider provider;
+    private String[] issued;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(provider, "verifiedCacheEnabled", cacheEnabled);
+        ReflectionTestUtils.setField(provider, "verifiedCacheMaxSize", maxSize);
+        provider.init();
+
+        issued = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            issued[i] = provider.generateToken(User.builder()
+                    .id(UUID.randomUUID())
+                    .name("User " + i)
+                    .email("user" + i + "@example.com")
+                    .role(UserRole.CITIZEN)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return provider.parseClaims(issued[ThreadLocalRandom.current().nextInt(issued.length)]);
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartcityfix.user.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of bcrypt at the configured strengths, hashed on the calling thread and through
+ * {@link PasswordHashingExecutor}. Registration and profile updates pay one hash each, so
+ * this is roughly the latency they add before their transaction starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    @Param({"10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHashingExecutor executor;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "threads", 0);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 64);
+        ReflectionTestUtils.setField(executor, "timeout", Duration.ofSeconds(30));
+        executor.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public String encodeOnCallingThread() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encodeOnHashingExecutor() {
+        return executor.execute(() -> encoder.encode(PASSWORD));
+    }
+}
@@ -2,6 +2,8 @@ package com.smartcityfix.user.controller;
 
 import com.smartcityfix.common.dto.ApiResponse;
 import com.smartcityfix.user.dto.AuthResponse;
+import com.smartcityfix.user.dto.UserBatchLookupRequest;
+import com.smartcityfix.user.dto.UserContactResponse;
 import com.smartcityfix.user.dto.UserLoginRequest;
 import com.smartcityfix.user.dto.UserRegistrationRequest;
 import com.smartcityfix.user.dto.UserResponse;
@@ -16,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -63,4 +66,14 @@ public class UserController {
         UserResponse userResponse = userService.updateUser(id, request);
         return ResponseEntity.ok(ApiResponse.success("User updated successfully", userResponse));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/batch-lookup")
+    @PreAuthorize("hasRole('SERVICE') or hasRole('ADMIN')")
+    @Operation(summary = "Batch user lookup", description = "Returns contact details for up to 500 user IDs in one call; unknown IDs are omitted")
+    public ResponseEntity<ApiResponse<List<UserContactResponse>>> batchLookup(
+            @Valid @RequestBody UserBatchLookupRequest request) {
+        log.info("Batch lookup for {} users", request.getIds().size());
+        List<UserContactResponse> contacts = userService.getUserContacts(request.getIds());
+        return ResponseEntity.ok(ApiResponse.success(contacts));
+    }
+}
@@ -0,0 +1,8 @@
+package com.smartcityfix.user.exception;
+
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package com.smartcityfix.user.messaging;
+
+import com.smartcityfix.common.messaging.EventRoute;
+import com.smartcityfix.common.messaging.EventTopology;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PrincipalInvalidationConfig {
+
+    /**
+     * Every instance caches principals on its own, so each needs its own copy of every user
+     * change: a server-named, exclusive queue that goes away with the instance.
+     */
+    @Bean
+    public Queue userChangedQueue(EventTopology eventTopology) {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("smartcityfix." + eventTopology.getService() + ".user-changed."));
+    }
+
+    @Bean
+    public Binding userChangedBinding(Queue userChangedQueue, EventTopology eventTopology) {
+        return BindingBuilder.bind(userChangedQueue)
+                .to(new TopicExchange(eventTopology.getExchange(), true, false))
+                .with(EventRoute.USER_CHANGED.getRoutingKey());
+    }
+}
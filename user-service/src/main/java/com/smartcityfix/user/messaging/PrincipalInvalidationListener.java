@@ -0,0 +1,22 @@
+package com.smartcityfix.user.messaging;
+
+import com.smartcityfix.common.event.UserChangedEvent;
+import com.smartcityfix.user.security.PrincipalCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrincipalInvalidationListener {
+
+    private final PrincipalCache principalCache;
+
+    @RabbitListener(queues = "#{userChangedQueue.name}")
+    public void handleUserChangedEvent(UserChangedEvent event) {
+        log.info("Received UserChangedEvent for user: {}", event.getUserId());
+        principalCache.invalidateUser(event.getUserId());
+    }
+}
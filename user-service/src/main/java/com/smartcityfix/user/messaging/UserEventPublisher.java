@@ -1,10 +1,10 @@
 package com.smartcityfix.user.messaging;
 
+import com.smartcityfix.common.event.UserChangedEvent;
 import com.smartcityfix.common.event.UserRegisteredEvent;
+import com.smartcityfix.common.messaging.EventRoute;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -12,22 +12,33 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class UserEventPublisher {
 
-    private final RabbitTemplate rabbitTemplate;
-
-    @Value("${app.rabbitmq.exchange}")
-    private String exchange;
-
-    @Value("${app.rabbitmq.routing-key.user-registered}")
-    private String userRegisteredRoutingKey;
+    private final OutboxRelay outboxRelay;
 
+    /**
+     * Stores the event in the outbox as part of the caller's transaction; it reaches the
+     * broker once that transaction commits and the relay picks it up.
+     */
     public void publishUserRegisteredEvent(UserRegisteredEvent event) {
         try {
-            log.info("Publishing UserRegisteredEvent for user: {}", event.getUserId());
-            rabbitTemplate.convertAndSend(exchange, userRegisteredRoutingKey, event);
-            log.info("UserRegisteredEvent published successfully");
+            log.info("Queueing UserRegisteredEvent for user: {}", event.getUserId());
+            outboxRelay.enqueue(event, EventRoute.USER_REGISTERED.getRoutingKey());
+        } catch (Exception e) {
+            log.error("Failed to queue UserRegisteredEvent", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the change notice in the outbox like {@link #publishUserRegisteredEvent}; every
+     * user-service instance drops its cached principals of the user when it arrives.
+     */
+    public void publishUserChangedEvent(UserChangedEvent event) {
+        try {
+            log.info("Queueing UserChangedEvent for user: {}", event.getUserId());
+            outboxRelay.enqueue(event, EventRoute.USER_CHANGED.getRoutingKey());
         } catch (Exception e) {
-            log.error("Failed to publish UserRegisteredEvent", e);
+            log.error("Failed to queue UserChangedEvent", e);
             throw e;
         }
     }
-}
\ No newline at end of file
+}
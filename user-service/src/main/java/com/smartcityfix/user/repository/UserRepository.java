@@ -1,16 +1,45 @@
 package com.smartcityfix.user.repository;
 
 import com.smartcityfix.user.model.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
 
-    boolean existsByEmail(String email);
-}
\ No newline at end of file
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email, u.phone AS phone FROM User u WHERE u.id IN :ids")
+    List<UserContact> findContactsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
+    @Query("SELECT u.email FROM User u WHERE u.updatedAt >= :since")
+    List<String> findEmailsUpdatedSince(@Param("since") LocalDateTime since);
+
+    interface UserContact {
+        UUID getId();
+
+        String getName();
+
+        String getEmail();
+
+        String getPhone();
+    }
+}
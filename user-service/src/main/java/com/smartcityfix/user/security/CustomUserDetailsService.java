@@ -6,6 +6,7 @@ import com.smartcityfix.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,13 +17,21 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final EmailExistenceFilter emailExistenceFilter;
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        // Unknown emails skip the lookup; DaoAuthenticationProvider still runs a dummy
+        // password match on UsernameNotFoundException, so the response time does not
+        // reveal whether the address is registered
+        if (!emailExistenceFilter.mightExist(email)) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+
         try {
             User user = userRepository.findByEmail(email)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
@@ -48,4 +57,22 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        try {
+            User user = userRepository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+
+            user.setPassword(newPassword);
+            userRepository.save(user);
+
+            log.info("Upgraded password hash for user: {}", user.getId());
+            return UserPrincipal.create(user);
+        } catch (Exception e) {
+            log.error("Error upgrading password hash for user: {}", userDetails.getUsername(), e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.smartcityfix.user.security;
+
+import com.smartcityfix.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over registered emails, used to turn away logins for unknown addresses
+ * without a database lookup. A negative answer is definite; a positive answer may be
+ * wrong and must be confirmed against the database.
+ *
+ * <p>The filter is built from a streamed scan once the application is ready and then kept
+ * current from rows updated since the last refresh, which also picks up registrations made
+ * on other instances. Until the initial build completes every email is reported as present.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.security.email-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.email-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.security.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Overlap between refreshes so commits that land while a refresh runs are not missed
+    @Value("${app.security.email-filter.refresh-overlap:PT30S}")
+    private Duration refreshOverlap;
+
+    private volatile BitSet bits;
+    private volatile LocalDateTime watermark;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        BitSet built = BitSet.sized(expectedInsertions, falsePositiveRate);
+        LocalDateTime scanStartedAt = LocalDateTime.now();
+
+        long count = transactionTemplate.execute(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                return emails.peek(built::add).count();
+            }
+        });
+
+        this.watermark = scanStartedAt;
+        this.bits = built;
+        log.info("Built email existence filter with {} emails ({} bits, {} hashes) in {} ms",
+                count, built.size(), built.hashCount(), System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.email-filter.refresh-interval-ms:5000}")
+    public void refresh() {
+        BitSet current = bits;
+        if (current == null) {
+            return;
+        }
+
+        LocalDateTime refreshStartedAt = LocalDateTime.now();
+        List<String> emails = userRepository.findEmailsUpdatedSince(watermark.minus(refreshOverlap));
+        emails.forEach(current::add);
+        this.watermark = refreshStartedAt;
+    }
+
+    public void add(String email) {
+        BitSet current = bits;
+        if (current != null) {
+            current.add(email);
+        }
+    }
+
+    /**
+     * Returns false only if the email is certainly not registered.
+     */
+    public boolean mightExist(String email) {
+        BitSet current = bits;
+        return current == null || current.mightContain(email);
+    }
+
+    /**
+     * Lock-free bit array with k indexes derived from two 64-bit hashes (Kirsch-Mitzenmacher).
+     */
+    private static final class BitSet {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        private BitSet(long bitCount, int hashCount) {
+            this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+            this.bitCount = bitCount;
+            this.hashCount = hashCount;
+        }
+
+        static BitSet sized(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+            return new BitSet(Math.max(64, m), k);
+        }
+
+        long size() {
+            return bitCount;
+        }
+
+        int hashCount() {
+            return hashCount;
+        }
+
+        void add(String email) {
+            long[] hashes = hash(email);
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(hashes, i);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String email) {
+            long[] hashes = hash(email);
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(hashes, i);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long[] hashes, int i) {
+            return Math.floorMod(hashes[0] + i * hashes[1], bitCount);
+        }
+
+        private static long[] hash(String email) {
+            byte[] bytes = email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+
+            // FNV-1a, then two differently seeded finalizers to get independent values
+            long h = 0xcbf29ce484222325L;
+            for (byte b : bytes) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            return new long[]{mix(h), mix(h ^ 0x9e3779b97f4a7c15L) | 1L};
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
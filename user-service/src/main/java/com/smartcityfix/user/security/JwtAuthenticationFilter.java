@@ -1,5 +1,6 @@
 package com.smartcityfix.user.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +16,8 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -30,9 +34,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String userId = tokenProvider.getUserIdFromJWT(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseClaims(jwt) : null;
+
+            if (claims != null) {
+                UserDetails userDetails = resolvePrincipal(claims);
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -47,6 +52,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        String tokenId = claims.getId();
+        UserPrincipal cached = principalCache.get(tokenId);
+        if (cached != null) {
+            return cached;
+        }
+
+        String userId = claims.get("id", String.class);
+        UserPrincipal principal;
+        Instant validAsOf;
+        if (tokenId == null || claims.get("role") == null
+                || principalCache.isStale(UUID.fromString(userId), claims.getIssuedAt())) {
+            // Legacy tokens without a JWT ID, or tokens issued before the user last changed
+            validAsOf = Instant.now();
+            principal = (UserPrincipal) customUserDetailsService.loadUserById(userId);
+        } else {
+            validAsOf = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+            principal = UserPrincipal.fromClaims(claims);
+        }
+
+        principalCache.put(tokenId, principal, validAsOf);
+        return principal;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
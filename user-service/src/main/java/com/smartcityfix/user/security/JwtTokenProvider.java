@@ -9,11 +9,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ConcurrentLruCache;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -26,11 +33,26 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expiration}")
     private long jwtExpirationInMs;
 
+    @Value("${app.jwt.verified-cache.enabled:true}")
+    private boolean verifiedCacheEnabled;
+
+    @Value("${app.jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
     private Key key;
 
+    // Immutable once built, so a single instance is shared by all request threads
+    private JwtParser parser;
+
+    // Keyed by SHA-256 of the raw token so bearer tokens are not kept in memory. Spring's
+    // ConcurrentLruCache buffers its LRU bookkeeping, so lookups never take a global lock
+    private ConcurrentLruCache<String, VerifiedSlot> verifiedTokens;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = new ConcurrentLruCache<>(verifiedCacheMaxSize, tokenHash -> new VerifiedSlot());
     }
 
     public String generateToken(Authentication authentication) {
@@ -45,11 +67,13 @@ public class JwtTokenProvider {
 
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", userPrincipal.getId());
+        claims.put("name", userPrincipal.getName());
         claims.put("email", userPrincipal.getEmail());
         claims.put("role", authorities);
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
@@ -63,11 +87,13 @@ public class JwtTokenProvider {
 
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", user.getId());
+        claims.put("name", user.getName());
         claims.put("email", user.getEmail());
         claims.put("role", user.getRole().name());
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getEmail())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
@@ -76,19 +102,35 @@ public class JwtTokenProvider {
     }
 
     public String getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
         return claims.get("id").toString();
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies the token and returns its claims in a single parse, or null if the token is invalid.
+     * Recently verified tokens are served from a bounded LRU cache until they expire; each
+     * hit gets its own copy of the claims, so callers may modify what they are handed.
+     */
+    public Claims parseClaims(String authToken) {
+        String tokenHash = verifiedCacheEnabled && authToken != null ? hash(authToken) : null;
+        if (tokenHash != null) {
+            Claims cached = cachedClaims(tokenHash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(authToken).getBody();
+            if (tokenHash != null && claims.getExpiration() != null) {
+                // Only verified tokens get a slot, so invalid ones cannot evict cached entries
+                verifiedTokens.get(tokenHash).token = new VerifiedToken(
+                        Collections.unmodifiableMap(new HashMap<>(claims)), claims.getExpiration().getTime());
+            }
+            return claims;
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -97,7 +139,48 @@ public class JwtTokenProvider {
             log.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            log.error("JWT signature validation failed");
         }
-        return false;
+        return null;
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    private Claims cachedClaims(String tokenHash) {
+        if (!verifiedTokens.contains(tokenHash)) {
+            return null;
+        }
+        VerifiedToken verified = verifiedTokens.get(tokenHash).token;
+        if (verified == null) {
+            return null;
+        }
+        if (verified.expiresAt() <= System.currentTimeMillis()) {
+            verifiedTokens.remove(tokenHash);
+            return null;
+        }
+        return Jwts.claims(verified.claims());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(Map<String, Object> claims, long expiresAt) {
+    }
+
+    /**
+     * Cache entry, filled once the token has been verified. Empty only if the entry was
+     * evicted and recreated between the contains check and the read, which counts as a miss.
+     */
+    private static final class VerifiedSlot {
+        private volatile VerifiedToken token;
     }
-}
\ No newline at end of file
+}
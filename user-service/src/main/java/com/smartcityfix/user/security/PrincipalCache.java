@@ -0,0 +1,118 @@
+package com.smartcityfix.user.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of authenticated principals keyed by JWT ID, so repeated requests
+ * with the same token skip claim mapping entirely. When a user's profile or role changes,
+ * their cached principals are dropped and tokens issued before the change are flagged as
+ * stale so the filter reloads the user from the database instead of trusting old claims.
+ *
+ * <p>Changes are broadcast to every user-service instance, see
+ * {@link com.smartcityfix.user.messaging.PrincipalInvalidationListener}. The cache is a
+ * bounded LRU; the least recently used principal is evicted when it is full.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    @Value("${app.jwt.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jwt.principal-cache.ttl:PT30S}")
+    private Duration ttl;
+
+    @Value("${app.jwt.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.jwt.expiration}")
+    private long jwtExpirationInMs;
+
+    // Access-ordered, guarded by its own monitor
+    private final LinkedHashMap<String, CachedPrincipal> principals = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private final Map<UUID, Instant> userChanges = new ConcurrentHashMap<>();
+
+    public UserPrincipal get(String tokenId) {
+        if (!enabled || tokenId == null) {
+            return null;
+        }
+
+        synchronized (principals) {
+            CachedPrincipal cached = principals.get(tokenId);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt().isBefore(Instant.now())) {
+                principals.remove(tokenId);
+                return null;
+            }
+            return cached.principal();
+        }
+    }
+
+    /**
+     * Caches the principal unless its user changed at or after {@code validAsOf}: the
+     * token's issue time for a principal built from claims, or the time the user was read
+     * for one loaded from the database. The check runs after the insert, so a change that
+     * races with this call either removes the entry or is seen here.
+     */
+    public void put(String tokenId, UserPrincipal principal, Instant validAsOf) {
+        if (!enabled || tokenId == null) {
+            return;
+        }
+
+        CachedPrincipal cached = new CachedPrincipal(principal, Instant.now().plus(ttl));
+        synchronized (principals) {
+            principals.put(tokenId, cached);
+        }
+        if (changedSince(principal.getId(), validAsOf)) {
+            synchronized (principals) {
+                principals.remove(tokenId, cached);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the user changed after the token was issued, meaning its claims
+     * can no longer be trusted on their own.
+     */
+    public boolean isStale(UUID userId, Date issuedAt) {
+        return changedSince(userId, issuedAt != null ? issuedAt.toInstant() : null);
+    }
+
+    public void invalidateUser(UUID userId) {
+        Instant now = Instant.now();
+        userChanges.merge(userId, now, (previous, current) -> previous.isAfter(current) ? previous : current);
+        synchronized (principals) {
+            principals.values().removeIf(cached -> userId.equals(cached.principal().getId()));
+        }
+
+        // Tokens issued before a change cannot outlive the JWT expiration, so neither can the marker
+        Instant changeCutoff = now.minusMillis(jwtExpirationInMs);
+        userChanges.values().removeIf(changedAt -> changedAt.isBefore(changeCutoff));
+        log.debug("Invalidated cached principals for user {}", userId);
+    }
+
+    private boolean changedSince(UUID userId, Instant validAsOf) {
+        Instant changedAt = userChanges.get(userId);
+        return changedAt != null && (validAsOf == null || !validAsOf.isAfter(changedAt));
+    }
+
+    private record CachedPrincipal(UserPrincipal principal, Instant expiresAt) {
+    }
+}
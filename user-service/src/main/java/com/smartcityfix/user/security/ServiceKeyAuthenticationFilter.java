@@ -0,0 +1,75 @@
+package com.smartcityfix.user.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates other services calling the batch lookup endpoint with a key from
+ * {@code app.security.batch-lookup.keys}, sent in the X-Service-Key header. The key grants
+ * the SERVICE role on that endpoint only, so callers never need the JWT signing secret.
+ */
+@Component
+@Slf4j
+public class ServiceKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String SERVICE_KEY_HEADER = "X-Service-Key";
+
+    private static final String BATCH_LOOKUP_PATH = "/api/users/batch-lookup";
+    private static final String SERVICE_PRINCIPAL = "service";
+
+    private final List<byte[]> keys;
+
+    public ServiceKeyAuthenticationFilter(@Value("${app.security.batch-lookup.keys:}") List<String> keys) {
+        this.keys = keys.stream()
+                .filter(StringUtils::hasText)
+                .map(key -> key.trim().getBytes(StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !BATCH_LOOKUP_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(SERVICE_KEY_HEADER);
+        if (StringUtils.hasText(key)) {
+            if (isKnown(key)) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        SERVICE_PRINCIPAL, null, List.of(new SimpleGrantedAuthority("ROLE_SERVICE")));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } else {
+                log.warn("Rejected unknown service key for {}", request.getServletPath());
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isKnown(String key) {
+        byte[] presented = key.getBytes(StandardCharsets.UTF_8);
+        boolean known = false;
+        for (byte[] candidate : keys) {
+            // Constant time, and every key is compared, so timing reveals nothing about the keys
+            known |= MessageDigest.isEqual(candidate, presented);
+        }
+        return known;
+    }
+}
@@ -2,6 +2,7 @@ package com.smartcityfix.user.security;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.smartcityfix.user.model.User;
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -42,6 +44,26 @@ public class UserPrincipal implements UserDetails {
                 .build();
     }
 
+    /**
+     * Builds a principal from already-verified JWT claims without touching the database.
+     * Accepts both the "ROLE_X" form written for authenticated logins and the bare role name.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        List<GrantedAuthority> authorities = Arrays.stream(claims.get("role", String.class).split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+
+        return UserPrincipal.builder()
+                .id(UUID.fromString(claims.get("id", String.class)))
+                .name(claims.get("name", String.class))
+                .email(claims.get("email", String.class))
+                .authorities(authorities)
+                .build();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
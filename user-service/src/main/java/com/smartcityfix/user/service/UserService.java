@@ -1,10 +1,13 @@
 package com.smartcityfix.user.service;
 
 import com.smartcityfix.user.dto.AuthResponse;
+import com.smartcityfix.user.dto.UserContactResponse;
 import com.smartcityfix.user.dto.UserLoginRequest;
 import com.smartcityfix.user.dto.UserRegistrationRequest;
 import com.smartcityfix.user.dto.UserResponse;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
@@ -16,4 +19,6 @@ public interface UserService {
     UserResponse getUserById(UUID id);
 
     UserResponse updateUser(UUID id, UserRegistrationRequest request);
+
+    List<UserContactResponse> getUserContacts(Collection<UUID> ids);
 }
\ No newline at end of file
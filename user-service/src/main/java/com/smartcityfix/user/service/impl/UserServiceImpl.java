@@ -1,23 +1,29 @@
 package com.smartcityfix.user.service.impl;
 
+import com.smartcityfix.common.event.UserChangedEvent;
 import com.smartcityfix.common.event.UserRegisteredEvent;
 import com.smartcityfix.common.exception.ResourceNotFoundException;
 import com.smartcityfix.user.dto.AuthResponse;
+import com.smartcityfix.user.dto.UserContactResponse;
 import com.smartcityfix.user.dto.UserLoginRequest;
 import com.smartcityfix.user.dto.UserRegistrationRequest;
 import com.smartcityfix.user.dto.UserResponse;
 import com.smartcityfix.user.exception.InvalidCredentialsException;
+import com.smartcityfix.user.exception.ServiceBusyException;
 import com.smartcityfix.user.exception.UserAlreadyExistsException;
 import com.smartcityfix.user.messaging.UserEventPublisher;
 import com.smartcityfix.user.model.User;
 import com.smartcityfix.user.model.UserRole;
 import com.smartcityfix.user.repository.UserRepository;
+import com.smartcityfix.user.security.EmailExistenceFilter;
 import com.smartcityfix.user.security.JwtTokenProvider;
+import com.smartcityfix.user.security.PasswordHashingExecutor;
+import com.smartcityfix.user.security.PrincipalCache;
 import com.smartcityfix.user.service.UserService;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -25,7 +31,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -33,55 +43,48 @@ import java.util.UUID;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
-    @PersistenceContext
-    private EntityManager entityManager;
-
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
     private final UserEventPublisher eventPublisher;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final TransactionTemplate transactionTemplate;
 
+    // Not @Transactional: the password is hashed before a connection is taken from the pool,
+    // and only the writes run in the transaction
     @Override
-    @Transactional
     public UserResponse registerUser(UserRegistrationRequest request) {
         log.info("Registering new user with email: {}", request.getEmail());
 
         try {
-            if (userRepository.existsByEmail(request.getEmail())) {
-                log.warn("User with email {} already exists", request.getEmail());
-                throw new UserAlreadyExistsException(request.getEmail());
-            }
-
-            User user = User.builder()
-                    .name(request.getName())
-                    .email(request.getEmail())
-                    .password(passwordEncoder.encode(request.getPassword()))
-                    .phone(request.getPhone())
-                    .role(UserRole.CITIZEN)
-                    .build();
-
-            // Save the user first
-            User savedUser = userRepository.save(user);
-
-            // Flush to ensure the entity is persisted
-            userRepository.flush();
-
-            // Store the ID in a final variable for use in the lambda
-            final UUID userId = savedUser.getId();
-
-            // Fetch the user again to get the updated entity with timestamps
-            User refreshedUser = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-            log.info("User registered successfully with id: {}", refreshedUser.getId());
-
-            // Publish user registered event
-            eventPublisher.publishUserRegisteredEvent(
-                    new UserRegisteredEvent(refreshedUser.getId(), refreshedUser.getEmail(), refreshedUser.getName()));
-
-            return mapToUserResponse(refreshedUser);
-        } catch (UserAlreadyExistsException e) {
+            String encodedPassword = encodePassword(request.getPassword());
+
+            return transactionTemplate.execute(status -> {
+                User user = User.builder()
+                        .name(request.getName())
+                        .email(request.getEmail())
+                        .password(encodedPassword)
+                        .phone(request.getPhone())
+                        .role(UserRole.CITIZEN)
+                        .build();
+
+                // A single INSERT: the id and timestamps are generated in memory, and a duplicate
+                // email surfaces as a unique-constraint violation instead of a separate lookup
+                User savedUser = saveAndFlush(user);
+                emailExistenceFilter.add(savedUser.getEmail());
+
+                log.info("User registered successfully with id: {}", savedUser.getId());
+
+                // Written to the outbox in this transaction, published after commit
+                eventPublisher.publishUserRegisteredEvent(
+                        new UserRegisteredEvent(savedUser.getId(), savedUser.getEmail(), savedUser.getName()));
+
+                return mapToUserResponse(savedUser);
+            });
+        } catch (UserAlreadyExistsException | ServiceBusyException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error registering user", e);
@@ -94,10 +97,12 @@ public class UserServiceImpl implements UserService {
         log.info("Attempting login for user: {}", request.getEmail());
 
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail(),
-                            request.getPassword()
+            Authentication authentication = passwordHashingExecutor.execute(() ->
+                    authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    request.getEmail(),
+                                    request.getPassword()
+                            )
                     )
             );
 
@@ -113,6 +118,8 @@ public class UserServiceImpl implements UserService {
                     .token(jwt)
                     .user(mapToUserResponse(user))
                     .build();
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Login failed for user: {}", request.getEmail(), e);
             throw new InvalidCredentialsException();
@@ -138,45 +145,42 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    // Not @Transactional, for the same reason as registerUser
     @Override
-    @Transactional
     public UserResponse updateUser(UUID id, UserRegistrationRequest request) {
         log.info("Updating user with id: {}", id);
 
         try {
-            User user = userRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
-
-            // Check if email is being changed and if it's already taken
-            if (!user.getEmail().equals(request.getEmail()) &&
-                    userRepository.existsByEmail(request.getEmail())) {
-                log.warn("Email {} is already taken", request.getEmail());
-                throw new UserAlreadyExistsException(request.getEmail());
-            }
-
-            user.setName(request.getName());
-            user.setEmail(request.getEmail());
-            user.setPhone(request.getPhone());
-
             // Only update password if provided
-            if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-                user.setPassword(passwordEncoder.encode(request.getPassword()));
-            }
-
-            User updatedUser = userRepository.save(user);
-            userRepository.flush();
-
-            // Store the ID in a final variable for use in the lambda
-            final UUID userId = updatedUser.getId();
-
-            // Fetch the user again to get the updated entity with timestamps
-            User refreshedUser = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-            log.info("User updated successfully: {}", refreshedUser.getId());
-
-            return mapToUserResponse(refreshedUser);
-        } catch (ResourceNotFoundException | UserAlreadyExistsException e) {
+            String encodedPassword = request.getPassword() != null && !request.getPassword().isEmpty()
+                    ? encodePassword(request.getPassword())
+                    : null;
+
+            return transactionTemplate.execute(status -> {
+                User user = userRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+
+                user.setName(request.getName());
+                user.setEmail(request.getEmail());
+                user.setPhone(request.getPhone());
+                if (encodedPassword != null) {
+                    user.setPassword(encodedPassword);
+                }
+
+                // A taken email is reported by the unique constraint on flush
+                User updatedUser = saveAndFlush(user);
+                emailExistenceFilter.add(updatedUser.getEmail());
+
+                // Existing tokens still carry the old claims; other instances are told through
+                // the outbox once this commits
+                principalCache.invalidateUser(updatedUser.getId());
+                eventPublisher.publishUserChangedEvent(new UserChangedEvent(updatedUser.getId()));
+
+                log.info("User updated successfully: {}", updatedUser.getId());
+
+                return mapToUserResponse(updatedUser);
+            });
+        } catch (ResourceNotFoundException | UserAlreadyExistsException | ServiceBusyException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error updating user with id: {}", id, e);
@@ -184,6 +188,57 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserContactResponse> getUserContacts(Collection<UUID> ids) {
+        log.info("Looking up contacts for {} users", ids.size());
+
+        try {
+            List<UserContactResponse> contacts = userRepository.findContactsByIdIn(new LinkedHashSet<>(ids)).stream()
+                    .map(contact -> UserContactResponse.builder()
+                            .id(contact.getId())
+                            .name(contact.getName())
+                            .email(contact.getEmail())
+                            .phone(contact.getPhone())
+                            .build())
+                    .toList();
+
+            log.info("Found {} of {} requested users", contacts.size(), ids.size());
+            return contacts;
+        } catch (Exception e) {
+            log.error("Error looking up user contacts", e);
+            throw e;
+        }
+    }
+
+    private User saveAndFlush(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                log.warn("User with email {} already exists", user.getEmail());
+                throw new UserAlreadyExistsException(user.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    private boolean isEmailConflict(DataIntegrityViolationException e) {
+        Throwable cause = e.getCause();
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraintName = violation.getConstraintName();
+                return constraintName != null && constraintName.toLowerCase().contains("email");
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    private String encodePassword(String rawPassword) {
+        return passwordHashingExecutor.execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
     private UserResponse mapToUserResponse(User user) {
         return UserResponse.builder()
                 .id(user.getId())
@@ -0,0 +1,2 @@
+-- Supports the incremental refresh of the in-memory email existence filter
+CREATE INDEX idx_users_updated_at ON users(updated_at);